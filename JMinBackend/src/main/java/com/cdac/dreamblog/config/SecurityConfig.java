@@ -3,6 +3,7 @@ package com.cdac.dreamblog.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -35,6 +36,12 @@ public class SecurityConfig {
                 ).permitAll()
             .requestMatchers("/api/auth/**").permitAll()
             .requestMatchers("/api/admin/**").hasAuthority("ADMIN")
+            // Every dream with its full body, private ones included
+            .requestMatchers(HttpMethod.GET, "/api/dreams/export").hasAuthority("ADMIN")
+            // Each item names its own author
+            .requestMatchers(HttpMethod.POST, "/api/dreams/bulk").hasAuthority("ADMIN")
+            .requestMatchers("/actuator/health").permitAll()
+            .requestMatchers("/actuator/**").hasAuthority("ADMIN")
             .anyRequest().authenticated();
 
         http.addFilterAt(jwtFilter, UsernamePasswordAuthenticationFilter.class);
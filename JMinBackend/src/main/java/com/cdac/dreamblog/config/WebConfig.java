@@ -17,6 +17,7 @@ public class WebConfig {
                         .allowedOrigins("http://localhost:3000") // your frontend URL
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("ETag") // lets the frontend send it back in If-None-Match
                         .allowCredentials(true); // optional for cookies/auth
             }
         };
@@ -0,0 +1,63 @@
+package com.cdac.dreamblog.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cdac.dreamblog.exception.BadRequestException;
+import com.cdac.dreamblog.service.implementation.DreamSearchIndex;
+import com.cdac.dreamblog.service.implementation.DreamServiceImplementation;
+
+// Maintenance operations, restricted to ADMIN by SecurityConfig
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private DreamSearchIndex searchIndex;
+
+    @Autowired
+    private DreamServiceImplementation dreamService;
+
+    /**
+     * One page of every dream, private ones included, newest first.
+     * @param before nextCursor from the previous page, or null for the newest dreams.
+     * @param limit Page size, defaults to 20 and is capped at 100.
+     * @return ResponseEntity with the dreams and the cursor of the next page (null on the last).
+     */
+    @GetMapping("/dreams")
+    public ResponseEntity<?> getAllDreams(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String before) {
+        try {
+            return ResponseEntity.ok(dreamService.getAllDreamsForAdmin(before, limit));
+        } catch (BadRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the dream search index from the database.
+     * @return ResponseEntity with the number of dreams indexed.
+     */
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<?> rebuildSearchIndex() {
+        try {
+            int indexed = searchIndex.rebuild();
+            return ResponseEntity.ok(Map.of("indexed", indexed));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+}
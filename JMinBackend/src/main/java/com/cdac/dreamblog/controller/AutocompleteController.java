@@ -0,0 +1,57 @@
+package com.cdac.dreamblog.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cdac.dreamblog.service.implementation.AutocompleteService;
+
+@RestController
+@RequestMapping("/api/autocomplete")
+public class AutocompleteController {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    /**
+     * Tags starting with the prefix, most used first.
+     * @param prefix What the user has typed so far (case-insensitive, a leading '#' is ignored).
+     * @param limit Maximum number of suggestions (default 10).
+     */
+    @GetMapping("/tags")
+    public ResponseEntity<?> suggestTags(@RequestParam String prefix,
+            @RequestParam(required = false, defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        try {
+            String typed = prefix.trim();
+            while (typed.startsWith("#")) {
+                typed = typed.substring(1);
+            }
+            return ResponseEntity.ok(autocompleteService.suggestTags(typed, limit));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Usernames starting with the prefix, most followed first.
+     * @param prefix What the user has typed so far (case-insensitive).
+     * @param limit Maximum number of suggestions (default 10).
+     */
+    @GetMapping("/users")
+    public ResponseEntity<?> suggestUsernames(@RequestParam String prefix,
+            @RequestParam(required = false, defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        try {
+            return ResponseEntity.ok(autocompleteService.suggestUsernames(prefix, limit));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+}
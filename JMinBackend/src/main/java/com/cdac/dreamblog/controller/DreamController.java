@@ -1,12 +1,16 @@
 package com.cdac.dreamblog.controller;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,12 +19,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.cdac.dreamblog.dto.DreamWithCommentsDto;
 import com.cdac.dreamblog.dto.request.DreamRequestDto;
 import com.cdac.dreamblog.dto.request.ReactionRequestDto;
+import com.cdac.dreamblog.dto.response.BulkIngestResponseDto;
 import com.cdac.dreamblog.dto.response.DreamResponseDto;
+import com.cdac.dreamblog.exception.BadRequestException;
+import com.cdac.dreamblog.exception.ResourceNotFoundException;
 import com.cdac.dreamblog.service.implementation.DreamServiceImplementation;
 
 import jakarta.validation.Valid;
@@ -45,41 +55,245 @@ public class DreamController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getAllDreams(  
-      ) {
+    public ResponseEntity<?> getAllDreams(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String before) {
         try {
-            return ResponseEntity.ok(dreamService.getAllDreams());
+            return ResponseEntity.ok(dreamService.getAllDreams(before, limit));
+        } catch (BadRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error creating dream: " + e.getMessage());
         }
 
     }
 
+    /**
+     * Creates dreams in bulk. The body is either a JSON array of dreams or newline-delimited
+     * JSON (application/x-ndjson), one dream per line, each shaped like a POST /api/dreams body.
+     * Admins only (see SecurityConfig), as each item's userId sets its author.
+     * @return ResponseEntity with created/failed counts and one result per item, in input order.
+     */
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson" })
+    public ResponseEntity<?> ingestDreams(InputStream body) {
+        try {
+            BulkIngestResponseDto response = dreamService.ingestDreams(body);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Streams every dream as newline-delimited JSON without building the full list in memory.
+     * Admins only (see SecurityConfig), as the export includes private dreams.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDreams() {
+        StreamingResponseBody body = out -> dreamService.exportDreams(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Top trending dreams, ranked by time-decayed reactions and comments.
+     * @param limit Page size, defaults to 20 and is capped at 100.
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrendingDreams(@RequestParam(required = false) Integer limit) {
+        try {
+            List<DreamWithCommentsDto> dreams = dreamService.getTrendingDreams(limit);
+            return ResponseEntity.ok(dreams);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Full-text search over dream titles, bodies and tags, best match first.
+     * @param q The search text; quoted phrases, AND/OR and trailing wildcards are supported.
+     * @param limit Page size, defaults to 20 and is capped at 100.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchDreams(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        try {
+            List<DreamWithCommentsDto> dreams = dreamService.searchDreams(q, limit);
+            return ResponseEntity.ok(dreams);
+        } catch (BadRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Public dreams with the given tag, newest first.
+     * @param limit Page size, defaults to 20 and is capped at 100.
+     * @param before nextCursor from the previous page.
+     */
+    @GetMapping("/tags/{tag}")
+    public ResponseEntity<?> getDreamsByTag(@PathVariable String tag,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String before) {
+        try {
+            return ResponseEntity.ok(dreamService.getDreamsByTag(tag, before, limit));
+        } catch (BadRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Most used tags with their public dream counts.
+     * @param limit Number of tags, defaults to 20 and is capped at 100.
+     */
+    @GetMapping("/tags")
+    public ResponseEntity<?> getTopTags(@RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(dreamService.getTopTags(limit));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Public dreams matching a tag combination, newest first,
+     * e.g. /api/dreams/tagged?all=flying,ocean&none=nightmare
+     * @param all Comma-separated tags a dream must all carry.
+     * @param any Comma-separated tags of which a dream must carry at least one.
+     * @param none Comma-separated tags a dream must not carry.
+     */
+    @GetMapping("/tagged")
+    public ResponseEntity<?> getDreamsByTags(
+            @RequestParam(required = false) List<String> all,
+            @RequestParam(required = false) List<String> any,
+            @RequestParam(required = false) List<String> none,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String before) {
+        try {
+            return ResponseEntity.ok(dreamService.getDreamsByTags(all, any, none, before, limit));
+        } catch (BadRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Number of public dreams matching a tag combination; same parameters as /tagged.
+     */
+    @GetMapping("/tagged/count")
+    public ResponseEntity<?> countDreamsByTags(
+            @RequestParam(required = false) List<String> all,
+            @RequestParam(required = false) List<String> any,
+            @RequestParam(required = false) List<String> none) {
+        try {
+            return ResponseEntity.ok(Map.of("count", dreamService.countDreamsByTags(all, any, none)));
+        } catch (BadRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The caller's reaction to each of a page of dreams, e.g. ?ids=4,8,15.
+     * @param ids Up to 100 dream IDs.
+     * @return ResponseEntity with the reaction type by dream ID; dreams without one are left out.
+     */
+    @GetMapping("/reactions/mine")
+    public ResponseEntity<?> getMyReactions(@RequestParam List<Long> ids) {
+        try {
+            return ResponseEntity.ok(dreamService.getMyReactions(ids));
+        } catch (BadRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/user/{userId}") // A more RESTful endpoint for dreams by user
     public ResponseEntity<?> getDreamsByUserId(@PathVariable Long userId) {
         try {
             List<DreamWithCommentsDto> dreamDto = dreamService.getDreamsByUserId(userId);
             return ResponseEntity.ok(dreamDto);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error creating dream: " + e.getMessage());
         }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getDreamById(@PathVariable Long id) {
+    public ResponseEntity<?> getDreamById(@PathVariable Long id, WebRequest request) {
         try {
+            // Answer If-None-Match from the version query before loading the dream and its body
+            String eTag = dreamService.getDreamETag(id);
+            if (eTag != null) {
+                // Revalidated reads are views too
+                dreamService.recordView(id);
+            }
+            if (eTag != null && request.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
             DreamResponseDto dreamResponseDto = dreamService.getDreamById(id);
-            return ResponseEntity.ok(dreamResponseDto);
+            return ResponseEntity.ok().eTag(eTag).body(dreamResponseDto);
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error creating dream: " + e.getMessage());
         }
     }
 
+    /**
+     * Views of a dream, including the ones counted since the last flush to the database.
+     * @param id The ID of the dream.
+     * @return ResponseEntity with the dream ID and its view count.
+     */
+    @GetMapping("/{id}/views")
+    public ResponseEntity<?> getViewCount(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(Map.of("dreamId", id, "views", dreamService.getViewCount(id)));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Live counts of a dream as Server-Sent Events: a "counts" event with the reaction and
+     * public comment counts right away, then at most one per interval while they change.
+     * @param id The ID of the dream.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> subscribeToDream(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(dreamService.subscribeToCounts(id));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateDream(@PathVariable Long id, @Valid @RequestBody DreamRequestDto dreamDto) {
         try {
             DreamResponseDto dreamResponseDto = dreamService.updateDream(id,dreamDto);
             return ResponseEntity.ok(dreamResponseDto);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Dream was changed concurrently, please retry");
         } catch (Exception e) {
 
             System.out.println("Error creating dream: " + e.getMessage());
@@ -89,7 +303,7 @@ public class DreamController {
     }
 
     @PutMapping("/{id}/reaction")
-    public ResponseEntity<?> likeDream(@PathVariable Long id, @RequestBody ReactionRequestDto reactionDto) {
+    public ResponseEntity<?> likeDream(@PathVariable Long id, @Valid @RequestBody ReactionRequestDto reactionDto) {
         try {
             DreamResponseDto dreamResponseDto = dreamService.reactToDream(id, reactionDto.getUserId(), reactionDto.getReactionType());
             return ResponseEntity.ok(dreamResponseDto);
@@ -107,6 +321,8 @@ public class DreamController {
             dreamService.deleteDream(id);
             return ResponseEntity.status(HttpStatus.CREATED).body("Deleted Successfully");
 
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Dream was changed concurrently, please retry");
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error creating dream: " + e.getMessage());
         }
@@ -0,0 +1,43 @@
+package com.cdac.dreamblog.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cdac.dreamblog.exception.BadRequestException;
+import com.cdac.dreamblog.exception.ResourceNotFoundException;
+import com.cdac.dreamblog.service.implementation.FeedServiceImplementation;
+
+@RestController
+@RequestMapping("/api/feed")
+public class FeedController {
+
+    @Autowired
+    private FeedServiceImplementation feedService;
+
+    /**
+     * Home timeline of the authenticated user.
+     * @param limit Page size (default 20, max 100).
+     * @param before nextCursor from the previous page.
+     * @return ResponseEntity with the page of dreams.
+     */
+    @GetMapping
+    public ResponseEntity<?> getFeed(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String before) {
+        try {
+            return ResponseEntity.ok(feedService.getFeedForCurrentUser(before, limit));
+        } catch (BadRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+}
@@ -10,6 +10,9 @@ import com.cdac.dreamblog.model.Follow;
 import com.cdac.dreamblog.model.User;
 import com.cdac.dreamblog.repository.FollowRepository;
 import com.cdac.dreamblog.repository.UserRepository;
+import com.cdac.dreamblog.repository.projection.FollowView;
+import com.cdac.dreamblog.service.implementation.AutocompleteService;
+import com.cdac.dreamblog.service.implementation.TimelineStore;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
@@ -29,10 +32,15 @@ public class FollowController {
 
     private final FollowRepository followRepository;
     private final UserRepository userRepository; // Inject UserRepository as well
+    private final TimelineStore timelineStore;
+    private final AutocompleteService autocompleteService;
 
-    public FollowController(FollowRepository followRepository, UserRepository userRepository) {
+    public FollowController(FollowRepository followRepository, UserRepository userRepository,
+            TimelineStore timelineStore, AutocompleteService autocompleteService) {
         this.followRepository = followRepository;
         this.userRepository = userRepository;
+        this.timelineStore = timelineStore;
+        this.autocompleteService = autocompleteService;
     }
 
     // --- Utility Methods (moved from Service, simplified for direct use) ---
@@ -57,22 +65,28 @@ public class FollowController {
         return dto;
     }
 
-    private FollowerResponseDto toFollowerResponseDto(Follow follow) {
-        if (follow == null) return null;
+    private FollowerResponseDto toFollowerResponseDto(FollowView follow) {
         FollowerResponseDto dto = new FollowerResponseDto();
-        dto.setFollower(toUserMinimalDto(follow.getFollower()));
-        dto.setUserId(follow.getFollowed().getUserId());
-        dto.setUsername(follow.getFollowed().getUsername());
+        UserMinimalDto follower = new UserMinimalDto();
+        follower.setUserId(follow.getFollowerId());
+        follower.setUsername(follow.getFollowerUsername());
+        follower.setFirstName(follow.getFollowerFirstName());
+        dto.setFollower(follower);
+        dto.setUserId(follow.getFollowedId());
+        dto.setUsername(follow.getFollowedUsername());
         dto.setFollowedAt(follow.getFollowedAt());
         return dto;
     }
 
-    private FollowingResponseDto toFollowingResponseDto(Follow follow) {
-        if (follow == null) return null;
+    private FollowingResponseDto toFollowingResponseDto(FollowView follow) {
         FollowingResponseDto dto = new FollowingResponseDto();
-        dto.setFollowed(toUserMinimalDto(follow.getFollowed()));
-        dto.setUserId(follow.getFollower().getUserId());
-        dto.setUsername(follow.getFollower().getUsername());
+        UserMinimalDto followed = new UserMinimalDto();
+        followed.setUserId(follow.getFollowedId());
+        followed.setUsername(follow.getFollowedUsername());
+        followed.setFirstName(follow.getFollowedFirstName());
+        dto.setFollowed(followed);
+        dto.setUserId(follow.getFollowerId());
+        dto.setUsername(follow.getFollowerUsername());
         dto.setFollowedAt(follow.getFollowedAt());
         return dto;
     }
@@ -113,6 +127,9 @@ public class FollowController {
 
             // 5. Save and return DTO
             Follow savedFollow = followRepository.save(follow);
+            // Follower's home timeline now has a new source; rebuild it on next read
+            timelineStore.evict(follower.getUserId());
+            autocompleteService.followersChanged(followed.getUsername(), 1);
             return new ResponseEntity<>(toFollowResponseDto(savedFollow), HttpStatus.CREATED); // 201 Created
 
         } catch (EntityNotFoundException e) {
@@ -147,6 +164,8 @@ public class FollowController {
 
             // 3. Delete the relationship
             followRepository.delete(follow);
+            timelineStore.evict(follower.getUserId());
+            autocompleteService.followersChanged(followed.getUsername(), -1);
             return ResponseEntity.noContent().build(); // 204 No Content
 
         } catch (EntityNotFoundException e) {
@@ -165,10 +184,12 @@ public class FollowController {
     @GetMapping("/following/{userId}")
     public ResponseEntity<?> getFollowing(@PathVariable Long userId) {
         try {
-            User user = userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + userId));
+            if (!userRepository.existsById(userId)) {
+                throw new EntityNotFoundException("User not found with ID: " + userId);
+            }
 
-            List<Follow> followingRelations = followRepository.findByFollower(user);
+            // Projection: only the id/username/firstName columns of both users
+            List<FollowView> followingRelations = followRepository.findFollowingViews(userId);
             List<FollowingResponseDto> followingDtos = followingRelations.stream()
                 .map(this::toFollowingResponseDto) // Use the local conversion method
                 .collect(Collectors.toList());
@@ -190,10 +211,12 @@ public class FollowController {
     @GetMapping("/followers/{userId}")
     public ResponseEntity<?> getFollowers(@PathVariable Long userId) {
         try {
-            User user = userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + userId));
+            if (!userRepository.existsById(userId)) {
+                throw new EntityNotFoundException("User not found with ID: " + userId);
+            }
 
-            List<Follow> followerRelations = followRepository.findByFollowed(user);
+            // Projection: only the id/username/firstName columns of both users
+            List<FollowView> followerRelations = followRepository.findFollowerViews(userId);
             List<FollowerResponseDto> followerDtos = followerRelations.stream()
                 .map(this::toFollowerResponseDto) // Use the local conversion method
                 .collect(Collectors.toList());
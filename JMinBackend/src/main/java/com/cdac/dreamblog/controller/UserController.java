@@ -8,6 +8,7 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.cdac.dreamblog.dto.request.UserRequestDto;
 import com.cdac.dreamblog.dto.response.UserResponseDto;
@@ -93,10 +94,14 @@ public class UserController {
     }
 
     @GetMapping("/{username}")
-    public ResponseEntity<?> getUserByUsername(@Valid @PathVariable String username) {
+    public ResponseEntity<?> getUserByUsername(@Valid @PathVariable String username, WebRequest request) {
         try {
-         UserResponseDto userResponseDto = userService.getUserByUsername(username);
-        return ResponseEntity.ok(userResponseDto);
+            String eTag = userService.getUserETag(username);
+            if (eTag != null && request.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            UserResponseDto userResponseDto = userService.getUserByUsername(username);
+            return ResponseEntity.ok().eTag(eTag).body(userResponseDto);
         } catch (ResourceNotFoundException e) {
             // Catches validation errors or unique constraint violations from the service
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage()); // 400 Bad Request
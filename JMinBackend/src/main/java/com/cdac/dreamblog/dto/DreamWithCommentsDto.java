@@ -3,6 +3,7 @@ package com.cdac.dreamblog.dto;
 import lombok.Data;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import com.cdac.dreamblog.dto.response.CommentResponseDto;
 import com.cdac.dreamblog.model.DreamReaction;
@@ -10,12 +11,15 @@ import com.cdac.dreamblog.model.DreamReaction;
 @Data
 public class DreamWithCommentsDto {
     private Long dreamId;
-    private String content;
+    private String content; // Snippet only; the full body comes from GET /api/dreams/{id}
     private String title;
     private LocalDateTime createdAt;
-    private List<DreamReaction> reactions;
+    private List<DreamReaction> reactions; // Only the requesting user's own reaction, if any
+    private Map<String, Long> reactionCounts; // Reaction type -> number of reactions
     private String visibility;
     private String location;
     private UserMinimalDto user; // Minimal details of the dream owner
-    private List<CommentResponseDto> comments; // List of associated comments
+    private List<CommentResponseDto> comments; // First few comments, capped per dream
+    private Long commentCount; // Total number of comments on the dream
+    private Long viewCount; // Stored views plus views not flushed yet
 }
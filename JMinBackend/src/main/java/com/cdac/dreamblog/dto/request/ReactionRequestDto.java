@@ -1,9 +1,14 @@
 package com.cdac.dreamblog.dto.request;
 
+import com.cdac.dreamblog.enums.ReactionType;
+
+import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 @Data
 public class ReactionRequestDto {
+  @NotNull(message = "User ID cannot be null")
   private Long userId;
-  private String reactionType;
-}
\ No newline at end of file
+  // Parsed from its code ("like", ...), so unknown types are rejected with 400; null removes the reaction
+  private ReactionType reactionType;
+}
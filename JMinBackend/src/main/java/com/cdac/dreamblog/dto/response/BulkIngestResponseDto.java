@@ -0,0 +1,13 @@
+package com.cdac.dreamblog.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BulkIngestResponseDto {
+    private int created;
+    private int failed;
+    private List<IngestResultDto> results = new ArrayList<>();
+}
@@ -0,0 +1,12 @@
+package com.cdac.dreamblog.dto.response;
+
+import java.util.List;
+
+import lombok.Data;
+
+// One page of a keyset-paginated listing. nextCursor is null on the last page.
+@Data
+public class CursorPageResponseDto<T> {
+    private List<T> items;
+    private String nextCursor;
+}
@@ -0,0 +1,13 @@
+package com.cdac.dreamblog.dto.response;
+
+import java.util.Map;
+
+import lombok.Data;
+
+// Payload of the "counts" event pushed to subscribers of a dream
+@Data
+public class DreamCountsDto {
+    private Long dreamId;
+    private Map<String, Long> reactionCounts; // Reaction type -> number of reactions
+    private Long commentCount; // Public comments only, as in list views
+}
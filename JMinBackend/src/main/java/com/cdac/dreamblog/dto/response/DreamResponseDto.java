@@ -1,7 +1,7 @@
 package com.cdac.dreamblog.dto.response;
 
 import java.time.LocalDateTime;
-
+import java.util.Map;
 
 import lombok.Data;
 
@@ -14,6 +14,7 @@ public class DreamResponseDto {
     private String visibility;
     private Integer likeCount; 
     private Integer dislikeCount;
+    private Map<String, Long> reactionCounts; // Reaction type -> number of reactions
     private Boolean isReposted;
     private LocalDateTime createdAt;
     private LocalDateTime lastUpdated;
@@ -0,0 +1,12 @@
+package com.cdac.dreamblog.dto.response;
+
+import lombok.Data;
+
+// Outcome of one item of a bulk dream ingest, in input order
+@Data
+public class IngestResultDto {
+    private int index;
+    private String status; // "created" or "failed"
+    private Long dreamId;
+    private String error;
+}
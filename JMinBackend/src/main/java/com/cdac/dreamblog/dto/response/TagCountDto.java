@@ -0,0 +1,10 @@
+package com.cdac.dreamblog.dto.response;
+
+import lombok.Data;
+
+// A tag and the number of public dreams carrying it
+@Data
+public class TagCountDto {
+    private String tag;
+    private long count;
+}
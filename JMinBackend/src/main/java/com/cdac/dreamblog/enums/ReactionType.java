@@ -0,0 +1,73 @@
+package com.cdac.dreamblog.enums;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * The reactions a dream can get. Stored in dream_reaction and sent to clients as the
+ * lowercase code; the byte ID is the form kept in memory (see PackedReactions).
+ * IDs are never reused, and 0 is reserved for "no reaction".
+ */
+public enum ReactionType {
+
+    LIKE("like", (byte) 1),
+    DISLIKE("dislike", (byte) 2),
+    CRY("cry", (byte) 3),
+    BEST("best", (byte) 4);
+
+    private static final ReactionType[] BY_ID = new ReactionType[5];
+
+    private static final String CODES = Arrays.stream(values())
+            .map(ReactionType::getCode)
+            .collect(Collectors.joining(", "));
+
+    static {
+        for (ReactionType type : values()) {
+            BY_ID[type.id] = type;
+        }
+    }
+
+    private final String code;
+    private final byte id;
+
+    ReactionType(String code, byte id) {
+        this.code = code;
+        this.id = id;
+    }
+
+    @JsonValue
+    public String getCode() {
+        return code;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    /**
+     * Reads a type from a request; a null code stays null (removing the reaction).
+     * @throws IllegalArgumentException For codes that are not a reaction type.
+     */
+    @JsonCreator
+    public static ReactionType fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        for (ReactionType type : values()) {
+            if (type.code.equalsIgnoreCase(code.trim())) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown reaction type '" + code + "', expected one of " + CODES);
+    }
+
+    /**
+     * @return The type with this ID, or null for 0 and unknown IDs.
+     */
+    public static ReactionType fromId(byte id) {
+        return id > 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+}
@@ -7,6 +7,10 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
+@Table(indexes = {
+    // Backs the per-dream listings: dream_id = ? AND visibility = 'public' ORDER BY createdAt
+    @Index(name = "idx_comment_dream_visibility_created_at", columnList = "dream_id, visibility, created_at")
+})
 public class Comment {
 
     @Id
@@ -15,6 +19,7 @@ public class Comment {
 
     private String commentText;
     private LocalDateTime createdAt;
+    private LocalDateTime lastUpdated;
 
     private String visibility; // "public" or "private"
 
@@ -26,4 +31,9 @@ public class Comment {
     @JoinColumn(name = "userId")
     private User user;
 
+    // Optimistic lock, as on Dream
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint not null default 0")
+    private Long version;
+
 }
\ No newline at end of file
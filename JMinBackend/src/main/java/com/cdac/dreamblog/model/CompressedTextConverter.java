@@ -0,0 +1,112 @@
+package com.cdac.dreamblog.model;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Deflate-compresses long text before it is written to a TEXT column.
+ *
+ * Stored forms:
+ *   MARKER + 'z' + base64(deflate(utf8)) - compressed
+ *   MARKER + 'r' + text                  - raw text that starts with MARKER, or that is
+ *                                          THRESHOLD bytes or more but does not compress
+ *   anything else                        - raw text (short values and rows written before compression)
+ *
+ * Values shorter than THRESHOLD UTF-8 bytes, or that would not get smaller, are stored raw,
+ * so old rows and new rows can both be read. Long values are always marked, so
+ * DreamBodyCompressionMigration can tell the ones already tried from old rows.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, String> {
+
+    public static final int THRESHOLD = 1024;
+    public static final char MARKER = '\u0001';
+    private static final char COMPRESSED = 'z';
+    private static final char ESCAPED_RAW = 'r';
+
+    @Override
+    public String convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length >= THRESHOLD) {
+            String compressed = MARKER + "" + COMPRESSED + Base64.getEncoder().encodeToString(deflate(utf8));
+            // The compressed form is ASCII, so its length is its size in bytes
+            if (compressed.length() < utf8.length) {
+                return compressed;
+            }
+            return MARKER + "" + ESCAPED_RAW + text;
+        }
+        if (!text.isEmpty() && text.charAt(0) == MARKER) {
+            return MARKER + "" + ESCAPED_RAW + text;
+        }
+        return text;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String stored) {
+        if (stored == null || stored.length() < 2 || stored.charAt(0) != MARKER) {
+            return stored;
+        }
+        if (stored.charAt(1) == COMPRESSED) {
+            return new String(inflate(Base64.getDecoder().decode(stored.substring(2))), StandardCharsets.UTF_8);
+        }
+        if (stored.charAt(1) == ESCAPED_RAW) {
+            return stored.substring(2);
+        }
+        return stored;
+    }
+
+    /**
+     * @return true if the stored value is already in compressed form.
+     */
+    public static boolean isCompressed(String stored) {
+        return stored != null && stored.length() >= 2 && stored.charAt(0) == MARKER && stored.charAt(1) == COMPRESSED;
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(buffer);
+                out.write(buffer, 0, written);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed dream content");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed dream content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -4,9 +4,7 @@ import jakarta.persistence.*;
 import lombok.Data;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
@@ -18,24 +16,52 @@ import io.jsonwebtoken.lang.Objects;
 
 @Data
 @Entity
+@Table(indexes = {
+    // Backs the keyset listing ORDER BY createdAt DESC, dreamId DESC
+    @Index(name = "idx_dream_created_at_id", columnList = "created_at, dream_id"),
+    // Backs the public listings: visibility = 'public' ORDER BY createdAt DESC, dreamId DESC
+    // (InnoDB appends the primary key to every secondary index)
+    @Index(name = "idx_dream_visibility_created_at", columnList = "visibility, created_at")
+})
 public class Dream {
 
+    // Pooled table generator instead of IDENTITY, so Hibernate can batch inserts: IDs are
+    // handed out from blocks of ID_ALLOCATION_SIZE without a round trip per row.
+    // DreamIdGeneratorSeed keeps the block counter above the IDs already in the table.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "dream_id")
+    @TableGenerator(name = "dream_id", table = ID_GENERATOR_TABLE, pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "dream", allocationSize = ID_ALLOCATION_SIZE)
     private Long dreamId;
 
+    public static final String ID_GENERATOR_TABLE = "id_generator";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    public static final int SNIPPET_LENGTH = 280;
+
+    public static final String PUBLIC = "public";
+    public static final String PRIVATE = "private";
+
     private String title;
     
+    // Full text now lives in DreamBody. This column only holds rows written before the
+    // split and is emptied by DreamBodyMigration.
     @Lob
     @Column(name = "large_text_content", columnDefinition = "TEXT")
-    private String content;
+    private String legacyContent;
+
+    // First SNIPPET_LENGTH characters of the body, shown by list views
+    @Column(length = SNIPPET_LENGTH + 3)
+    private String snippet;
 
     private String tags; // Comma-separated
     private String visibility; // "public" or "private"
     
+    // Reactions now live in dream_reaction (see Reaction). This column only holds lists
+    // written before the split and is emptied by DreamReactionMigration.
     @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "reactions_data", columnDefinition = "json") 
-    List<DreamReaction> reactions = new ArrayList<>();
+    @Column(name = "reactions_data", columnDefinition = "json")
+    private List<DreamReaction> legacyReactions;
 
     private Boolean isReposted;
 
@@ -45,87 +71,43 @@ public class Dream {
     @Column(nullable = true)
     private LocalDateTime lastUpdated;
 
+    // Written only by ViewCounter's batched increments, never by saving the entity,
+    // so a save cannot overwrite views counted since the dream was loaded
+    @Column(name = "view_count", insertable = false, updatable = false,
+            columnDefinition = "bigint not null default 0")
+    private Long viewCount;
+
     @ManyToOne
     @JoinColumn(name = "userId")
     private User user;
 
-    /**
-     * Adds or updates a reaction for a user. If the user already has a reaction
-     * of the same type, it updates the timestamp. If the user has a different
-     * reaction type, it replaces it.
-     * @param userId The ID of the user performing the reaction.
-     * @param reactionType The type of reaction (e.g., "like", "dislike", "cry", "best").
-     */
-    public void addOrUpdateReaction(Long userId, String reactionType) {
-        System.out.println("Getting Inside addOrUpdateReaction"+ reactionType);
-        if (reactions == null) {
-            reactions = new ArrayList<>();
-        }
+    // Set when the dream is deleted; the row and its comments are removed later by PurgeWorker
+    private LocalDateTime deletedAt;
 
-        // Find if this user already reacted
-        Optional<DreamReaction> existingReaction = reactions.stream()
-            .filter(r -> r.getUserId().equals(userId))
-            .findFirst();
-        
-
-        if (existingReaction.isPresent()) {
-                System.out.println("Getting Inside if"+ reactionType);
-
-            // User reacted before. Check if it's the same type
-            // if (existingReaction.get().getType().equals(reactionType.toString())) {
-            //     // Same type, just update timestamp (or do nothing if timestamp isn't important for updates)
-            //     existingReaction.get().setTimestamp(LocalDateTime.now());
-            // } else {
-                // Different type, remove old and add new
-                reactions.remove(existingReaction.get());
-                reactions.add(new DreamReaction(userId, reactionType, LocalDateTime.now()));
-            // }
-            System.out.println("Getting Inside if");
-
-        } else {
-            System.out.println("Getting Inside elese");
-            // New reaction from this user
-            reactions.add(new DreamReaction(userId, reactionType, LocalDateTime.now()));
-        }
-    }
+    // Bumped by every save; a save of a stale copy fails instead of overwriting a newer one.
+    // Rows from before the column existed start at 0.
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint not null default 0")
+    private Long version;
 
     /**
-     * Removes a reaction from a user.
-     * @param userId The ID of the user whose reaction to remove.
+     * Maps a requested visibility to one of the two stored values, so listings can filter
+     * with visibility = 'public' instead of also matching NULL and unknown values.
+     * @return PRIVATE for "private" in any case, PUBLIC otherwise.
      */
-    public void removeReaction(Long userId) {
-        if (reactions != null) {
-            reactions.removeIf(r -> r.getUserId().equals(userId));
-        }
-    }
-
-    /**
-     * Checks if a user has reacted to this dream.
-     * @param userId The ID of the user.
-     * @return true if the user has any reaction, false otherwise.
-     */
-    public boolean hasUserReacted(Long userId) {
-        return reactions != null && reactions.stream().anyMatch(r -> r.getUserId().equals(userId));
+    public static String normalizeVisibility(String visibility) {
+        return PRIVATE.equalsIgnoreCase(visibility == null ? null : visibility.trim()) ? PRIVATE : PUBLIC;
     }
 
     /**
-     * Gets the count for a specific reaction type.
-     * @param type The reaction type (e.g., "like").
-     * @return The count of reactions of that type.
+     * Builds the list-view snippet for a dream body.
+     * @param content The full body.
+     * @return The body cut to SNIPPET_LENGTH characters, with "..." appended when cut.
      */
-    public long getReactionCount(String type) {
-        if (reactions == null) {
-            return 0;
+    public static String toSnippet(String content) {
+        if (content == null || content.length() <= SNIPPET_LENGTH) {
+            return content;
         }
-        return reactions.stream()
-            .filter(r -> r.getType().equalsIgnoreCase(type))
-            .count();
-    }
-
-    /**
-     * Gets the total count of all reactions.
-     */
-    public int getTotalReactionCount() {
-        return reactions != null ? reactions.size() : 0;
+        return content.substring(0, SNIPPET_LENGTH) + "...";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.cdac.dreamblog.model;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Full text of a dream, stored apart from the Dream row so that listing and
+ * reacting to dreams never reads the (often long) body. Shares the dream's ID.
+ */
+@Data
+@Entity
+@Table(name = "dream_body")
+public class DreamBody implements Persistable<Long> {
+
+    @Id
+    private Long dreamId;
+
+    // Long bodies are stored deflate-compressed; see CompressedTextConverter
+    @Lob
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "large_text_content", columnDefinition = "TEXT")
+    private String content;
+
+    // The ID is assigned by hand, so tell Spring Data when to INSERT instead of merge
+    @Transient
+    private boolean fresh;
+
+    public static DreamBody of(Long dreamId, String content) {
+        DreamBody body = new DreamBody();
+        body.setDreamId(dreamId);
+        body.setContent(content);
+        body.setFresh(true);
+        return body;
+    }
+
+    @Override
+    public Long getId() {
+        return dreamId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.fresh = false;
+    }
+}
@@ -0,0 +1,97 @@
+package com.cdac.dreamblog.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Links a dream to a tag in the tag dictionary. Plain IDs rather than associations, since
+ * rows are only ever written in bulk and read to build the in-memory tag index.
+ */
+@Data
+@Entity
+@Table(name = "dream_tag", indexes = @Index(name = "idx_dream_tag_tag", columnList = "tag_id"))
+@IdClass(DreamTag.DreamTagId.class)
+public class DreamTag implements Persistable<DreamTag.DreamTagId> {
+
+    @Id
+    private Long dreamId;
+
+    @Id
+    private Long tagId;
+
+    // The ID is assigned by hand, so tell Spring Data when to INSERT instead of merge
+    @Transient
+    private boolean fresh;
+
+    public static DreamTag of(Long dreamId, Long tagId) {
+        DreamTag dreamTag = new DreamTag();
+        dreamTag.setDreamId(dreamId);
+        dreamTag.setTagId(tagId);
+        dreamTag.setFresh(true);
+        return dreamTag;
+    }
+
+    @Override
+    public DreamTagId getId() {
+        return new DreamTagId(dreamId, tagId);
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.fresh = false;
+    }
+
+    // Composite ID class
+    public static class DreamTagId implements Serializable {
+        private Long dreamId;
+        private Long tagId;
+
+        public DreamTagId() {}
+
+        public DreamTagId(Long dreamId, Long tagId) {
+            this.dreamId = dreamId;
+            this.tagId = tagId;
+        }
+
+        public Long getDreamId() {
+            return dreamId;
+        }
+
+        public void setDreamId(Long dreamId) {
+            this.dreamId = dreamId;
+        }
+
+        public Long getTagId() {
+            return tagId;
+        }
+
+        public void setTagId(Long tagId) {
+            this.tagId = tagId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof DreamTagId)) return false;
+            DreamTagId that = (DreamTagId) o;
+            return Objects.equals(dreamId, that.dreamId) &&
+                   Objects.equals(tagId, that.tagId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dreamId, tagId);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.cdac.dreamblog.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * One user's reaction to one dream. The primary key (dream_id, user_id) makes a user's
+ * reaction unique per dream, so reacting is a single-row upsert and removing it a
+ * single-row delete, however many reactions the dream has.
+ *
+ * Replaces the reactions_data JSON column of dream; DreamReactionMigration moves the
+ * old lists across. {@link DreamReaction} remains the shape returned to clients.
+ */
+@Data
+@Entity
+@Table(name = "dream_reaction", indexes = @Index(name = "idx_dream_reaction_user", columnList = "user_id, dream_id"))
+@IdClass(Reaction.ReactionId.class)
+public class Reaction {
+
+    @Id
+    private Long dreamId;
+
+    @Id
+    private Long userId;
+
+    @Column(name = "reaction_type", nullable = false, length = 32)
+    private String type;
+
+    private LocalDateTime reactedAt;
+
+    public DreamReaction toDreamReaction() {
+        return new DreamReaction(userId, type, reactedAt);
+    }
+
+    // Composite ID class
+    public static class ReactionId implements Serializable {
+        private Long dreamId;
+        private Long userId;
+
+        public ReactionId() {}
+
+        public ReactionId(Long dreamId, Long userId) {
+            this.dreamId = dreamId;
+            this.userId = userId;
+        }
+
+        public Long getDreamId() {
+            return dreamId;
+        }
+
+        public void setDreamId(Long dreamId) {
+            this.dreamId = dreamId;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ReactionId)) return false;
+            ReactionId that = (ReactionId) o;
+            return Objects.equals(dreamId, that.dreamId) &&
+                   Objects.equals(userId, that.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dreamId, userId);
+        }
+    }
+}
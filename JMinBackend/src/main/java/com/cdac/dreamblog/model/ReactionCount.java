@@ -0,0 +1,76 @@
+package com.cdac.dreamblog.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Number of reactions of one type on one dream, kept next to dream_reaction so counts are
+ * read without touching the individual reactions. Rows are only changed by relative
+ * updates (reaction_count = reaction_count + delta) in the same transaction as the
+ * reaction itself; updatedAt feeds the dream's ETag.
+ */
+@Data
+@Entity
+@Table(name = "dream_reaction_count")
+@IdClass(ReactionCount.ReactionCountId.class)
+public class ReactionCount {
+
+    @Id
+    private Long dreamId;
+
+    @Id
+    @Column(name = "reaction_type", length = 32)
+    private String type;
+
+    @Column(name = "reaction_count", nullable = false)
+    private long count;
+
+    private LocalDateTime updatedAt;
+
+    // Composite ID class
+    public static class ReactionCountId implements Serializable {
+        private Long dreamId;
+        private String type;
+
+        public ReactionCountId() {}
+
+        public ReactionCountId(Long dreamId, String type) {
+            this.dreamId = dreamId;
+            this.type = type;
+        }
+
+        public Long getDreamId() {
+            return dreamId;
+        }
+
+        public void setDreamId(Long dreamId) {
+            this.dreamId = dreamId;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ReactionCountId)) return false;
+            ReactionCountId that = (ReactionCountId) o;
+            return Objects.equals(dreamId, that.dreamId) &&
+                   Objects.equals(type, that.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dreamId, type);
+        }
+    }
+}
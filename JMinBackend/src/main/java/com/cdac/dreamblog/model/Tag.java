@@ -0,0 +1,60 @@
+package com.cdac.dreamblog.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Tag dictionary entry. Dreams refer to tags through DreamTag; names are stored normalized
+ * (see {@link #normalize(String)}).
+ */
+@Data
+@Entity
+@Table(name = "tag", uniqueConstraints = @UniqueConstraint(name = "uk_tag_name", columnNames = "name"))
+public class Tag {
+
+    public static final int MAX_NAME_LENGTH = 64;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long tagId;
+
+    @Column(nullable = false, length = MAX_NAME_LENGTH)
+    private String name;
+
+    public static Tag named(String name) {
+        Tag tag = new Tag();
+        tag.setName(name);
+        return tag;
+    }
+
+    /**
+     * Splits a comma-separated tag string into normalized, de-duplicated tag names:
+     * trimmed, lower-cased, without a leading '#', cut to MAX_NAME_LENGTH.
+     */
+    public static List<String> parse(String tags) {
+        Set<String> names = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String raw : tags.split(",")) {
+                String name = normalize(raw);
+                if (!name.isEmpty()) {
+                    names.add(name);
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    public static String normalize(String raw) {
+        String name = raw == null ? "" : raw.trim().toLowerCase(Locale.ROOT);
+        while (name.startsWith("#")) {
+            name = name.substring(1).trim();
+        }
+        return name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name;
+    }
+}
@@ -76,4 +76,7 @@ public class User {
     private Long createdBy;
     private LocalDateTime updatedAt;
     private Long updatedBy;
+
+    // Set when the account is deleted; its dreams, comments and follows are removed later by PurgeWorker
+    private LocalDateTime deletedAt;
 }
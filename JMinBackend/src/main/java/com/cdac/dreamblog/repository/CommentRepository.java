@@ -3,9 +3,18 @@ package com.cdac.dreamblog.repository;
 import com.cdac.dreamblog.model.Comment;
 import com.cdac.dreamblog.model.Dream;
 import com.cdac.dreamblog.model.User;
+import com.cdac.dreamblog.repository.projection.CommentListView;
+import com.cdac.dreamblog.repository.projection.CommentVisibilityView;
+import com.cdac.dreamblog.repository.projection.DreamCommentCount;
+import com.cdac.dreamblog.repository.projection.VersionStamp;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,4 +28,68 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     // Find comments for a dream with public visibility
     List<Comment> findByDreamAndVisibilityOrderByCreatedAtAsc(Dream dream, String visibility);
-}
\ No newline at end of file
+
+    // Selects only the columns behind CommentListView instead of the full Comment, Dream and User rows
+    String LIST_VIEW_SELECT = "SELECT c.commentId AS commentId, c.commentText AS commentText, "
+            + "c.createdAt AS createdAt, c.visibility AS visibility, c.dream.dreamId AS dreamId, "
+            + "u.userId AS userId, u.username AS username, u.firstName AS firstName "
+            + "FROM Comment c LEFT JOIN c.user u ";
+
+    // IDs of the oldest public comments of each dream, at most perDream per dream, in one round trip
+    @Query(value = "SELECT ranked.comment_id FROM ("
+            + "SELECT c.comment_id, ROW_NUMBER() OVER (PARTITION BY c.dream_id ORDER BY c.created_at ASC, c.comment_id ASC) AS rn "
+            + "FROM comment c WHERE c.dream_id IN (:dreamIds) AND c.visibility = 'public') ranked "
+            + "WHERE ranked.rn <= :perDream", nativeQuery = true)
+    List<Long> findFirstCommentIdsForDreams(@Param("dreamIds") Collection<Long> dreamIds,
+            @Param("perDream") int perDream);
+
+    // Comments with the given IDs, oldest first
+    @Query(LIST_VIEW_SELECT + "WHERE c.commentId IN :commentIds ORDER BY c.createdAt ASC, c.commentId ASC")
+    List<CommentListView> findListViewsByIds(@Param("commentIds") Collection<Long> commentIds);
+
+    // All comments of one dream, oldest first
+    @Query(LIST_VIEW_SELECT + "WHERE c.dream.dreamId = :dreamId ORDER BY c.createdAt ASC, c.commentId ASC")
+    List<CommentListView> findListViewsByDreamId(@Param("dreamId") Long dreamId);
+
+    // Comments of one dream with the given visibility, oldest first
+    @Query(LIST_VIEW_SELECT + "WHERE c.dream.dreamId = :dreamId AND c.visibility = :visibility "
+            + "ORDER BY c.createdAt ASC, c.commentId ASC")
+    List<CommentListView> findListViewsByDreamIdAndVisibility(@Param("dreamId") Long dreamId,
+            @Param("visibility") String visibility);
+
+    // Latest comment change on a dream and the number of comments, for the comment list ETag
+    @Query("SELECT MAX(COALESCE(c.lastUpdated, c.createdAt)) AS changedAt, COUNT(c) AS rowCount "
+            + "FROM Comment c WHERE c.dream.dreamId = :dreamId")
+    VersionStamp findVersionStampByDreamId(@Param("dreamId") Long dreamId);
+
+    // The same stamp over the comments with the given visibility, the list non-admins are served
+    @Query("SELECT MAX(COALESCE(c.lastUpdated, c.createdAt)) AS changedAt, COUNT(c) AS rowCount "
+            + "FROM Comment c WHERE c.dream.dreamId = :dreamId AND c.visibility = :visibility")
+    VersionStamp findVersionStampByDreamIdAndVisibility(@Param("dreamId") Long dreamId,
+            @Param("visibility") String visibility);
+
+    // Public comment count per dream for a batch of dreams
+    @Query("SELECT c.dream.dreamId AS dreamId, COUNT(c) AS commentCount FROM Comment c "
+            + "WHERE c.dream.dreamId IN :dreamIds AND c.visibility = 'public' GROUP BY c.dream.dreamId")
+    List<DreamCommentCount> countPublicByDreamIds(@Param("dreamIds") Collection<Long> dreamIds);
+
+    // Deletes up to batchSize comments of one dream; PurgeWorker repeats until none are left
+    @Modifying
+    @Query(value = "DELETE FROM comment WHERE dream_id = :dreamId LIMIT :batchSize", nativeQuery = true)
+    int deleteBatchByDreamId(@Param("dreamId") Long dreamId, @Param("batchSize") int batchSize);
+
+    // A batch of one user's comments, locked so the comment counts of their dreams can be
+    // lowered before they are deleted
+    @Query(value = "SELECT c.comment_id AS commentId, c.dream_id AS dreamId, c.visibility AS visibility "
+            + "FROM comment c WHERE c.user_id = :userId ORDER BY c.comment_id LIMIT :batchSize FOR UPDATE",
+            nativeQuery = true)
+    List<CommentVisibilityView> findBatchByUserIdForUpdate(@Param("userId") Long userId,
+            @Param("batchSize") int batchSize);
+
+    // Sets visibility to 'public' on up to batchSize comments whose visibility is missing or unknown
+    @Modifying
+    @Query(value = "UPDATE comment SET visibility = 'public' "
+            + "WHERE visibility IS NULL OR visibility NOT IN ('public', 'private') LIMIT :batchSize",
+            nativeQuery = true)
+    int normalizeVisibilityBatch(@Param("batchSize") int batchSize);
+}
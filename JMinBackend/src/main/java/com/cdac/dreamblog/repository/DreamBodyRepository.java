@@ -0,0 +1,31 @@
+package com.cdac.dreamblog.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.cdac.dreamblog.model.DreamBody;
+
+public interface DreamBodyRepository extends JpaRepository<DreamBody, Long> {
+
+    // Next batch of bodies long enough to compress (LENGTH counts bytes) that were written before
+    // compression and never tried, in ID order; values already tried start with markedPrefix
+    @Query(value = "SELECT b.dream_id FROM dream_body b WHERE b.dream_id > :afterDreamId "
+            + "AND LENGTH(b.large_text_content) >= :minBytes "
+            + "AND b.large_text_content NOT LIKE :markedPrefix "
+            + "ORDER BY b.dream_id LIMIT :batchSize", nativeQuery = true)
+    List<Long> findUncompressedIds(@Param("afterDreamId") long afterDreamId, @Param("minBytes") int minBytes,
+            @Param("markedPrefix") String markedPrefix, @Param("batchSize") int batchSize);
+
+    // Raw stored column value, bypassing the converter
+    @Query(value = "SELECT b.large_text_content FROM dream_body b WHERE b.dream_id = :dreamId", nativeQuery = true)
+    String findStoredContent(@Param("dreamId") Long dreamId);
+
+    // Overwrites the stored column value, bypassing the converter
+    @Modifying
+    @Query(value = "UPDATE dream_body SET large_text_content = :stored WHERE dream_id = :dreamId", nativeQuery = true)
+    int updateStoredContent(@Param("dreamId") Long dreamId, @Param("stored") String stored);
+}
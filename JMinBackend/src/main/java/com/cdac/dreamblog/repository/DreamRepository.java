@@ -1,12 +1,173 @@
 package com.cdac.dreamblog.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.cdac.dreamblog.model.Dream;
 import com.cdac.dreamblog.model.User;
+import com.cdac.dreamblog.repository.projection.DreamListView;
+import com.cdac.dreamblog.repository.projection.VersionStamp;
+
+import jakarta.persistence.QueryHint;
 
 public interface DreamRepository extends JpaRepository<Dream, Long> {
+
+     // Selects only the columns behind DreamListView instead of the full Dream and User rows,
+     // skipping dreams deleted but not purged yet. Queries append "AND ..." conditions.
+     // Rows not yet moved by DreamBodyMigration fall back to a prefix of the legacy column.
+     String LIST_VIEW_SELECT = "SELECT d.dreamId AS dreamId, d.title AS title, "
+               + "COALESCE(d.snippet, SUBSTRING(d.legacyContent, 1, " + Dream.SNIPPET_LENGTH + ")) AS snippet, "
+               + "d.createdAt AS createdAt, d.visibility AS visibility, d.viewCount AS viewCount, "
+               + "u.userId AS userId, u.username AS username, u.firstName AS firstName "
+               + "FROM Dream d LEFT JOIN d.user u WHERE d.deletedAt IS NULL ";
+
      List<Dream> findByUser(User user);
-}
\ No newline at end of file
+
+     // A dream that exists and is not deleted
+     Optional<Dream> findByDreamIdAndDeletedAtIsNull(Long dreamId);
+
+     boolean existsByDreamIdAndDeletedAtIsNull(Long dreamId);
+
+     // Change time of one dream, counting reaction changes, which do not touch the dream row;
+     // null when it does not exist or is deleted
+     @Query("SELECT GREATEST(COALESCE(d.lastUpdated, d.createdAt), "
+               + "COALESCE((SELECT MAX(rc.updatedAt) FROM ReactionCount rc WHERE rc.dreamId = d.dreamId), "
+               + "d.createdAt)) AS changedAt, 1L AS rowCount "
+               + "FROM Dream d WHERE d.dreamId = :dreamId AND d.deletedAt IS NULL")
+     VersionStamp findVersionStamp(@Param("dreamId") Long dreamId);
+
+     // Stored view count of one dream, without views still pending in ViewCounter
+     @Query("SELECT d.viewCount FROM Dream d WHERE d.dreamId = :dreamId AND d.deletedAt IS NULL")
+     Optional<Long> findViewCount(@Param("dreamId") Long dreamId);
+
+     // Newest public dreams first; first page of the keyset listing.
+     // Reads idx_dream_visibility_created_at backwards and never touches private rows.
+     @Query(LIST_VIEW_SELECT + "AND d.visibility = 'public' ORDER BY d.createdAt DESC, d.dreamId DESC")
+     List<DreamListView> findLatestPublic(Pageable pageable);
+
+     // Public dreams strictly older than the (createdAt, dreamId) cursor, newest first
+     @Query(LIST_VIEW_SELECT + "AND d.visibility = 'public' AND (d.createdAt < :createdAt "
+               + "OR (d.createdAt = :createdAt AND d.dreamId < :dreamId)) "
+               + "ORDER BY d.createdAt DESC, d.dreamId DESC")
+     List<DreamListView> findLatestPublicBefore(@Param("createdAt") LocalDateTime createdAt,
+               @Param("dreamId") Long dreamId, Pageable pageable);
+
+     // Newest dreams first whatever their visibility; first page of the admin listing.
+     // Reads idx_dream_created_at_id backwards.
+     @Query(LIST_VIEW_SELECT + "ORDER BY d.createdAt DESC, d.dreamId DESC")
+     List<DreamListView> findLatest(Pageable pageable);
+
+     // Dreams of any visibility strictly older than the (createdAt, dreamId) cursor, newest first
+     @Query(LIST_VIEW_SELECT + "AND (d.createdAt < :createdAt "
+               + "OR (d.createdAt = :createdAt AND d.dreamId < :dreamId)) "
+               + "ORDER BY d.createdAt DESC, d.dreamId DESC")
+     List<DreamListView> findLatestBefore(@Param("createdAt") LocalDateTime createdAt,
+               @Param("dreamId") Long dreamId, Pageable pageable);
+
+     // All dreams of one author, newest first; for the author's own profile
+     @Query(LIST_VIEW_SELECT + "AND u.userId = :userId ORDER BY d.createdAt DESC, d.dreamId DESC")
+     List<DreamListView> findListViewsByUserId(@Param("userId") Long userId);
+
+     // Public dreams of one author, newest first; for everyone else
+     @Query(LIST_VIEW_SELECT + "AND u.userId = :userId AND d.visibility = 'public' "
+               + "ORDER BY d.createdAt DESC, d.dreamId DESC")
+     List<DreamListView> findPublicListViewsByUserId(@Param("userId") Long userId);
+
+     // Dreams with the given IDs, in no particular order
+     @Query(LIST_VIEW_SELECT + "AND d.dreamId IN :dreamIds")
+     List<DreamListView> findListViewsByIds(@Param("dreamIds") Collection<Long> dreamIds);
+
+     // Newest dream IDs written by any of the given authors; used to rebuild a home timeline.
+     // Private dreams are only included for their own author. Ordered by ID like the timeline
+     // ring and findTimelineDreamIdsBefore, so a backdated createdAt cannot leave a gap.
+     @Query("SELECT d.dreamId FROM Dream d WHERE d.user.userId IN :authorIds "
+               + "AND (d.visibility = 'public' OR d.user.userId = :viewerId) AND d.deletedAt IS NULL "
+               + "ORDER BY d.dreamId DESC")
+     List<Long> findTimelineDreamIds(@Param("authorIds") Collection<Long> authorIds,
+               @Param("viewerId") Long viewerId, Pageable pageable);
+
+     // Same dreams as findTimelineDreamIds below the given ID, newest first; pages of a home
+     // timeline older than what TimelineStore keeps in memory
+     @Query("SELECT d.dreamId FROM Dream d WHERE d.user.userId IN :authorIds AND d.dreamId < :beforeDreamId "
+               + "AND (d.visibility = 'public' OR d.user.userId = :viewerId) AND d.deletedAt IS NULL "
+               + "ORDER BY d.dreamId DESC")
+     List<Long> findTimelineDreamIdsBefore(@Param("authorIds") Collection<Long> authorIds,
+               @Param("viewerId") Long viewerId, @Param("beforeDreamId") Long beforeDreamId, Pageable pageable);
+
+     // Newest public dream IDs of one author below the given ID; read-time pull for
+     // authors whose dreams are not fanned out
+     @Query("SELECT d.dreamId FROM Dream d WHERE d.user.userId = :authorId AND d.dreamId < :beforeDreamId "
+               + "AND d.visibility = 'public' AND d.deletedAt IS NULL ORDER BY d.dreamId DESC")
+     List<Long> findPublicDreamIdsByAuthorBefore(@Param("authorId") Long authorId,
+               @Param("beforeDreamId") Long beforeDreamId, Pageable pageable);
+
+     // Every dream not deleted, with its author and body text ([Dream, String]), read through a
+     // server-side cursor in fetch-size chunks. Must be consumed inside a transaction and closed afterwards.
+     @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+     @Query("SELECT d, b.content FROM Dream d LEFT JOIN FETCH d.user "
+               + "LEFT JOIN DreamBody b ON b.dreamId = d.dreamId WHERE d.deletedAt IS NULL ORDER BY d.dreamId")
+     Stream<Object[]> streamAllForExport();
+
+     // Next batch of dreams not deleted, in ID order
+     List<Dream> findByDreamIdGreaterThanAndDeletedAtIsNullOrderByDreamIdAsc(Long afterDreamId, Pageable pageable);
+
+     // Next batch of public dreams created since the given time, in ID order
+     @Query("SELECT d FROM Dream d WHERE d.visibility = 'public' AND d.createdAt >= :since "
+               + "AND d.dreamId > :afterDreamId AND d.deletedAt IS NULL ORDER BY d.dreamId ASC")
+     List<Dream> findPublicCreatedSince(@Param("since") LocalDateTime since,
+               @Param("afterDreamId") Long afterDreamId, Pageable pageable);
+
+     // IDs of all private dreams that are not deleted
+     @Query("SELECT d.dreamId FROM Dream d WHERE d.visibility = 'private' AND d.deletedAt IS NULL")
+     List<Long> findPrivateDreamIds();
+
+     // Next batch of tagged dreams whose tags have not been copied into dream_tag yet, in ID order
+     @Query("SELECT d FROM Dream d WHERE d.dreamId > :afterDreamId AND d.tags IS NOT NULL AND d.tags <> '' "
+               + "AND d.deletedAt IS NULL "
+               + "AND NOT EXISTS (SELECT 1 FROM DreamTag dt WHERE dt.dreamId = d.dreamId) ORDER BY d.dreamId ASC")
+     List<Dream> findUnindexedTaggedDreams(@Param("afterDreamId") Long afterDreamId, Pageable pageable);
+
+     // Oldest batch of deleted dreams waiting for DreamPurgeWorker
+     @Query("SELECT d.dreamId FROM Dream d WHERE d.deletedAt IS NOT NULL ORDER BY d.dreamId ASC")
+     List<Long> findDeletedDreamIds(Pageable pageable);
+
+     // Next batch of one author's dreams that are not deleted yet, in ID order
+     @Query("SELECT d.dreamId FROM Dream d WHERE d.user.userId = :userId AND d.deletedAt IS NULL "
+               + "ORDER BY d.dreamId ASC")
+     List<Long> findActiveDreamIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+     // Whether any dream of the user, deleted or not, is still stored
+     @Query("SELECT COUNT(d) > 0 FROM Dream d WHERE d.user.userId = :userId")
+     boolean existsByUserId(@Param("userId") Long userId);
+
+     // Sets visibility to 'public' on up to batchSize dreams whose visibility is missing or unknown
+     @Modifying
+     @Query(value = "UPDATE dream SET visibility = 'public' "
+               + "WHERE visibility IS NULL OR visibility NOT IN ('public', 'private') LIMIT :batchSize",
+               nativeQuery = true)
+     int normalizeVisibilityBatch(@Param("batchSize") int batchSize);
+
+     // Next batch of dreams whose reactions are still in the legacy JSON column, in ID order
+     List<Dream> findByLegacyReactionsIsNotNullAndDreamIdGreaterThanOrderByDreamIdAsc(Long afterDreamId,
+               Pageable pageable);
+
+     // Empties the legacy reactions column without writing (and version-checking) the rest of the row
+     @Modifying
+     @Query(value = "UPDATE dream SET reactions_data = NULL WHERE dream_id IN (:dreamIds)", nativeQuery = true)
+     int clearLegacyReactions(@Param("dreamIds") Collection<Long> dreamIds);
+
+     // Next batch of dreams whose text is still in the legacy column, in ID order
+     List<Dream> findByLegacyContentIsNotNullAndDreamIdGreaterThanOrderByDreamIdAsc(Long afterDreamId,
+               Pageable pageable);
+}
@@ -0,0 +1,35 @@
+package com.cdac.dreamblog.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.cdac.dreamblog.model.DreamTag;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface DreamTagRepository extends JpaRepository<DreamTag, DreamTag.DreamTagId> {
+
+    // Tag names of one dream
+    @Query("SELECT t.name FROM DreamTag dt JOIN Tag t ON t.tagId = dt.tagId WHERE dt.dreamId = :dreamId")
+    List<String> findTagNamesByDreamId(@Param("dreamId") Long dreamId);
+
+    // Every (tag name, dream ID) pair of dreams that are not deleted, streamed in chunks to build
+    // the in-memory tag index; deleted dreams keep their rows until PurgeWorker removes them
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.name, dt.dreamId FROM DreamTag dt JOIN Tag t ON t.tagId = dt.tagId "
+            + "JOIN Dream d ON d.dreamId = dt.dreamId WHERE d.deletedAt IS NULL")
+    Stream<Object[]> streamTagNamesAndDreamIds();
+
+    @Modifying
+    @Query("DELETE FROM DreamTag dt WHERE dt.dreamId = :dreamId")
+    int deleteByDreamId(@Param("dreamId") Long dreamId);
+}
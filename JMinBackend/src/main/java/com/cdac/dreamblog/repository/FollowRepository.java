@@ -2,9 +2,14 @@ package com.cdac.dreamblog.repository;
 
 import com.cdac.dreamblog.model.Follow;
 import com.cdac.dreamblog.model.User;
+import com.cdac.dreamblog.repository.projection.FollowView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,4 +33,42 @@ public interface FollowRepository extends JpaRepository<Follow, Follow.FollowId>
 
     // Count following for a user
     long countByFollower(User follower);
+
+    // Selects only the columns behind FollowView instead of both full User rows
+    String VIEW_SELECT = "SELECT fr.userId AS followerId, fr.username AS followerUsername, "
+            + "fr.firstName AS followerFirstName, fd.userId AS followedId, fd.username AS followedUsername, "
+            + "fd.firstName AS followedFirstName, f.followedAt AS followedAt "
+            + "FROM Follow f JOIN f.follower fr JOIN f.followed fd ";
+
+    // Followers of a user, as projections
+    @Query(VIEW_SELECT + "WHERE fd.userId = :userId")
+    List<FollowView> findFollowerViews(@Param("userId") Long userId);
+
+    // Users a user follows, as projections
+    @Query(VIEW_SELECT + "WHERE fr.userId = :userId")
+    List<FollowView> findFollowingViews(@Param("userId") Long userId);
+
+    // IDs of everyone following the given user, without loading the User rows
+    @Query("SELECT f.follower.userId FROM Follow f WHERE f.followed.userId = :userId")
+    List<Long> findFollowerIdsByFollowedId(@Param("userId") Long userId);
+
+    // IDs of everyone the given user follows, without loading the User rows
+    @Query("SELECT f.followed.userId FROM Follow f WHERE f.follower.userId = :userId")
+    List<Long> findFollowedIdsByFollowerId(@Param("userId") Long userId);
+
+    // Count followers for a user by ID
+    @Query("SELECT COUNT(f) FROM Follow f WHERE f.followed.userId = :userId")
+    long countFollowersByUserId(@Param("userId") Long userId);
+
+    // Those of the given users who have more than threshold followers
+    @Query("SELECT f.followed.userId FROM Follow f WHERE f.followed.userId IN :userIds "
+            + "GROUP BY f.followed.userId HAVING COUNT(f) > :threshold")
+    List<Long> findUserIdsWithMoreFollowersThan(@Param("userIds") Collection<Long> userIds,
+            @Param("threshold") long threshold);
+
+    // Deletes up to batchSize follows from or to one user; PurgeWorker repeats until none are left
+    @Modifying
+    @Query(value = "DELETE FROM follow WHERE follower_id = :userId OR followed_id = :userId LIMIT :batchSize",
+            nativeQuery = true)
+    int deleteBatchByUserId(@Param("userId") Long userId, @Param("batchSize") int batchSize);
 }
\ No newline at end of file
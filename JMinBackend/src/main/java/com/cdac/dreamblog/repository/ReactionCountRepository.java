@@ -0,0 +1,57 @@
+package com.cdac.dreamblog.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.cdac.dreamblog.model.ReactionCount;
+import com.cdac.dreamblog.repository.projection.DreamReactionCount;
+
+@Repository
+public interface ReactionCountRepository extends JpaRepository<ReactionCount, ReactionCount.ReactionCountId> {
+
+    // Adds delta (+1 or -1) to one counter, creating it on first use
+    @Modifying
+    @Query(value = "INSERT INTO dream_reaction_count (dream_id, reaction_type, reaction_count, updated_at) "
+            + "VALUES (:dreamId, :type, :delta, :now) "
+            + "ON DUPLICATE KEY UPDATE reaction_count = reaction_count + VALUES(reaction_count), "
+            + "updated_at = VALUES(updated_at)",
+            nativeQuery = true)
+    int add(@Param("dreamId") Long dreamId, @Param("type") String type, @Param("delta") long delta,
+            @Param("now") LocalDateTime now);
+
+    List<ReactionCount> findByDreamId(Long dreamId);
+
+    // Counters of a batch of dreams
+    @Query("SELECT rc FROM ReactionCount rc WHERE rc.dreamId IN :dreamIds")
+    List<ReactionCount> findByDreamIds(@Param("dreamIds") Collection<Long> dreamIds);
+
+    // Total reactions per dream for a batch of dreams
+    @Query("SELECT rc.dreamId AS dreamId, SUM(rc.count) AS reactionCount FROM ReactionCount rc "
+            + "WHERE rc.dreamId IN :dreamIds GROUP BY rc.dreamId")
+    List<DreamReactionCount> sumByDreamIds(@Param("dreamIds") Collection<Long> dreamIds);
+
+    // Total reactions of one dream
+    @Query("SELECT COALESCE(SUM(rc.count), 0) FROM ReactionCount rc WHERE rc.dreamId = :dreamId")
+    long sumByDreamId(@Param("dreamId") Long dreamId);
+
+    // Rebuilds the counters of the dreams in (afterDreamId, upToDreamId] from dream_reaction
+    @Modifying
+    @Query(value = "INSERT INTO dream_reaction_count (dream_id, reaction_type, reaction_count, updated_at) "
+            + "SELECT r.dream_id, r.reaction_type, COUNT(*), :now FROM dream_reaction r "
+            + "WHERE r.dream_id > :afterDreamId AND r.dream_id <= :upToDreamId GROUP BY r.dream_id, r.reaction_type "
+            + "ON DUPLICATE KEY UPDATE reaction_count = VALUES(reaction_count), updated_at = VALUES(updated_at)",
+            nativeQuery = true)
+    int recount(@Param("afterDreamId") Long afterDreamId, @Param("upToDreamId") Long upToDreamId,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM ReactionCount rc WHERE rc.dreamId = :dreamId")
+    int deleteByDreamId(@Param("dreamId") Long dreamId);
+}
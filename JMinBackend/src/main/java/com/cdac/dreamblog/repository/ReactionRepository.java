@@ -0,0 +1,72 @@
+package com.cdac.dreamblog.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.cdac.dreamblog.model.Reaction;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface ReactionRepository extends JpaRepository<Reaction, Reaction.ReactionId> {
+
+    // Adds a user's reaction to a dream, or replaces the one they already have unless that one
+    // is newer; reaction_type is assigned first so it still compares against the old reacted_at
+    @Modifying
+    @Query(value = "INSERT INTO dream_reaction (dream_id, user_id, reaction_type, reacted_at) "
+            + "VALUES (:dreamId, :userId, :type, :reactedAt) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "reaction_type = IF(VALUES(reacted_at) > reacted_at, VALUES(reaction_type), reaction_type), "
+            + "reacted_at = GREATEST(reacted_at, VALUES(reacted_at))",
+            nativeQuery = true)
+    int upsertUnlessNewer(@Param("dreamId") Long dreamId, @Param("userId") Long userId,
+            @Param("type") String type, @Param("reactedAt") LocalDateTime reactedAt);
+
+    // Type of a user's current reaction to a dream, without locking
+    @Query("SELECT r.type FROM Reaction r WHERE r.dreamId = :dreamId AND r.userId = :userId")
+    Optional<String> findType(@Param("dreamId") Long dreamId, @Param("userId") Long userId);
+
+    // Current reactions of some users to one dream, locking the rows until the transaction
+    // ends so the counter updates computed from them cannot interleave with another change
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reaction r WHERE r.dreamId = :dreamId AND r.userId IN :userIds")
+    List<Reaction> findForUpdate(@Param("dreamId") Long dreamId, @Param("userIds") Collection<Long> userIds);
+
+    // One user's reactions among a batch of dreams
+    @Query("SELECT r FROM Reaction r WHERE r.userId = :userId AND r.dreamId IN :dreamIds")
+    List<Reaction> findByUserIdAndDreamIds(@Param("userId") Long userId,
+            @Param("dreamIds") Collection<Long> dreamIds);
+
+    @Query("SELECT MAX(r.dreamId) FROM Reaction r")
+    Long findMaxDreamId();
+
+    // Deletes up to batchSize reactions to one dream; PurgeWorker repeats until none are left
+    @Modifying
+    @Query(value = "DELETE FROM dream_reaction WHERE dream_id = :dreamId LIMIT :batchSize", nativeQuery = true)
+    int deleteBatchByDreamId(@Param("dreamId") Long dreamId, @Param("batchSize") int batchSize);
+
+    // Every reaction to one dream, locked with the gaps between them, so no reaction to the dream
+    // can be written or removed until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reaction r WHERE r.dreamId = :dreamId")
+    List<Reaction> findAllByDreamIdForUpdate(@Param("dreamId") Long dreamId);
+
+    // A batch of one user's reactions, locked so their counters can be lowered before they are deleted
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reaction r WHERE r.userId = :userId ORDER BY r.dreamId")
+    List<Reaction> findBatchByUserIdForUpdate(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Reaction r WHERE r.userId = :userId AND r.dreamId IN :dreamIds")
+    int deleteByUserIdAndDreamIds(@Param("userId") Long userId, @Param("dreamIds") Collection<Long> dreamIds);
+}
@@ -0,0 +1,16 @@
+package com.cdac.dreamblog.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.cdac.dreamblog.model.Tag;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    // Dictionary entries for the given normalized names
+    List<Tag> findByNameIn(Collection<String> names);
+}
@@ -1,10 +1,16 @@
 package com.cdac.dreamblog.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.cdac.dreamblog.model.User;
+import com.cdac.dreamblog.repository.projection.UserFollowerCount;
+import com.cdac.dreamblog.repository.projection.VersionStamp;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
@@ -15,4 +21,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    // Every username with its follower count, for the username autocomplete; deleted users and
+    // their follows are left out before PurgeWorker removes them
+    @Query("SELECT u.username AS username, COUNT(fu) AS followerCount FROM User u "
+            + "LEFT JOIN Follow f ON f.followed = u LEFT JOIN f.follower fu ON fu.deletedAt IS NULL "
+            + "WHERE u.deletedAt IS NULL GROUP BY u.userId, u.username")
+    List<UserFollowerCount> findAllUsernamesWithFollowerCounts();
+
+    // Change time of one user's profile; rowCount is 0 when the user does not exist or is deleted
+    @Query("SELECT MAX(COALESCE(u.updatedAt, u.createdAt)) AS changedAt, COUNT(u) AS rowCount "
+            + "FROM User u WHERE u.username = :username AND u.deletedAt IS NULL")
+    VersionStamp findVersionStampByUsername(@Param("username") String username);
+
+    // Oldest batch of deleted users waiting for PurgeWorker
+    @Query("SELECT u.userId FROM User u WHERE u.deletedAt IS NOT NULL ORDER BY u.userId ASC")
+    List<Long> findDeletedUserIds(Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.cdac.dreamblog.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Columns of a comment and its author needed by CommentResponseDto
+public interface CommentListView {
+    Long getCommentId();
+
+    String getCommentText();
+
+    LocalDateTime getCreatedAt();
+
+    String getVisibility();
+
+    Long getDreamId();
+
+    Long getUserId();
+
+    String getUsername();
+
+    String getFirstName();
+}
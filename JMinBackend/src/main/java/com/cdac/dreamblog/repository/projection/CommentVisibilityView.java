@@ -0,0 +1,10 @@
+package com.cdac.dreamblog.repository.projection;
+
+// A comment's ID with the dream it is on and its visibility, enough to adjust comment counts
+public interface CommentVisibilityView {
+    Long getCommentId();
+
+    Long getDreamId();
+
+    String getVisibility();
+}
@@ -0,0 +1,8 @@
+package com.cdac.dreamblog.repository.projection;
+
+// Total number of comments on a dream, as returned by a grouped count query
+public interface DreamCommentCount {
+    Long getDreamId();
+
+    Long getCommentCount();
+}
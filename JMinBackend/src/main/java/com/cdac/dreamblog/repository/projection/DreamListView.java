@@ -0,0 +1,24 @@
+package com.cdac.dreamblog.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Columns of a dream and its author needed by list views (DreamWithCommentsDto)
+public interface DreamListView {
+    Long getDreamId();
+
+    String getTitle();
+
+    String getSnippet();
+
+    LocalDateTime getCreatedAt();
+
+    String getVisibility();
+
+    Long getViewCount();
+
+    Long getUserId();
+
+    String getUsername();
+
+    String getFirstName();
+}
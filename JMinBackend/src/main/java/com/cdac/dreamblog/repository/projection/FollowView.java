@@ -0,0 +1,20 @@
+package com.cdac.dreamblog.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Both sides of a follow relationship, reduced to the fields shown in follower/following lists
+public interface FollowView {
+    Long getFollowerId();
+
+    String getFollowerUsername();
+
+    String getFollowerFirstName();
+
+    Long getFollowedId();
+
+    String getFollowedUsername();
+
+    String getFollowedFirstName();
+
+    LocalDateTime getFollowedAt();
+}
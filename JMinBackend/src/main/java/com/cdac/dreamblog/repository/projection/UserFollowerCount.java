@@ -0,0 +1,8 @@
+package com.cdac.dreamblog.repository.projection;
+
+// A username and how many users follow it, as returned by a grouped count query
+public interface UserFollowerCount {
+    String getUsername();
+
+    Long getFollowerCount();
+}
@@ -0,0 +1,10 @@
+package com.cdac.dreamblog.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Latest change time and row count of a resource, used to derive its ETag without loading it
+public interface VersionStamp {
+    LocalDateTime getChangedAt();
+
+    Long getRowCount();
+}
@@ -0,0 +1,120 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.cdac.dreamblog.dto.response.TagCountDto;
+import com.cdac.dreamblog.repository.UserRepository;
+import com.cdac.dreamblog.repository.projection.UserFollowerCount;
+import com.cdac.dreamblog.util.PrefixTrie;
+import com.cdac.dreamblog.util.TransactionHooks;
+
+/**
+ * Type-ahead for tags (ranked by number of public dreams) and usernames (ranked by
+ * follower count), answered from in-memory prefix tries.
+ *
+ * The tries are built at startup and rebuilt on a schedule, and are kept current in
+ * between by the writes that change them: registering or deleting users, following,
+ * and creating or deleting dreams.
+ */
+@Component
+public class AutocompleteService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TagIndex tagIndex;
+
+    // Suggestions cached per trie node, and so the most a lookup can return
+    @Value("${dreamblog.autocomplete.max-suggestions:10}")
+    private int maxSuggestions;
+
+    private volatile PrefixTrie tags = new PrefixTrie(1);
+
+    private volatile PrefixTrie usernames = new PrefixTrie(1);
+
+    /**
+     * Rebuilds both tries. Runs once the tag index is loaded, then every rebuild-ms so
+     * rankings of scores that went down are exact again.
+     */
+    @Order(7)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${dreamblog.autocomplete.rebuild-ms:900000}",
+            initialDelayString = "${dreamblog.autocomplete.rebuild-ms:900000}")
+    public void rebuild() {
+        PrefixTrie tagTrie = new PrefixTrie(maxSuggestions);
+        for (TagCountDto tag : tagIndex.topTags(Integer.MAX_VALUE)) {
+            tagTrie.put(tag.getTag(), tag.getCount());
+        }
+        PrefixTrie usernameTrie = new PrefixTrie(maxSuggestions);
+        for (UserFollowerCount user : userRepository.findAllUsernamesWithFollowerCounts()) {
+            usernameTrie.put(user.getUsername(), user.getFollowerCount());
+        }
+        tags = tagTrie;
+        usernames = usernameTrie;
+        System.out.println("Autocomplete rebuilt with " + tagTrie.size() + " tags and "
+                + usernameTrie.size() + " usernames");
+    }
+
+    public List<String> suggestTags(String prefix, int limit) {
+        PrefixTrie trie = tags;
+        synchronized (trie) {
+            return trie.suggest(prefix, Math.min(limit, maxSuggestions));
+        }
+    }
+
+    public List<String> suggestUsernames(String prefix, int limit) {
+        PrefixTrie trie = usernames;
+        synchronized (trie) {
+            return trie.suggest(prefix, Math.min(limit, maxSuggestions));
+        }
+    }
+
+    /**
+     * Counts a public dream for (delta +1) or against (delta -1) each of its tags,
+     * once the current transaction commits.
+     */
+    public void tagsUsed(Collection<String> tagNames, int delta) {
+        List<String> names = new ArrayList<>(tagNames);
+        TransactionHooks.afterCommit(() -> {
+            PrefixTrie trie = tags;
+            synchronized (trie) {
+                names.forEach(tag -> trie.add(tag, delta));
+            }
+        });
+    }
+
+    public void userAdded(String username) {
+        TransactionHooks.afterCommit(() -> updateUsernames(trie -> trie.put(username, 0)));
+    }
+
+    public void userRemoved(String username) {
+        TransactionHooks.afterCommit(() -> updateUsernames(trie -> trie.remove(username)));
+    }
+
+    /**
+     * Adds delta (+1 follow, -1 unfollow) to a user's follower count once the current
+     * transaction commits.
+     */
+    public void followersChanged(String username, int delta) {
+        TransactionHooks.afterCommit(() -> updateUsernames(trie -> trie.add(username, delta)));
+    }
+
+    private void updateUsernames(Consumer<PrefixTrie> change) {
+        PrefixTrie trie = usernames;
+        synchronized (trie) {
+            change.accept(trie);
+        }
+    }
+}
@@ -3,10 +3,13 @@ package com.cdac.dreamblog.service.implementation;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import com.cdac.dreamblog.dto.DreamMinimalDto;
@@ -20,12 +23,19 @@ import com.cdac.dreamblog.model.User;
 import com.cdac.dreamblog.repository.CommentRepository;
 import com.cdac.dreamblog.repository.DreamRepository;
 import com.cdac.dreamblog.repository.UserRepository;
+import com.cdac.dreamblog.repository.projection.CommentListView;
+import com.cdac.dreamblog.util.ETags;
+import com.cdac.dreamblog.util.TransactionHooks;
 
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
 public class CommentServiceImplementation {
 
+    private static final String PUBLIC = "public";
+    private static final String PRIVATE = "private";
+    private static final Set<String> ADMIN_AUTHORITIES = Set.of("ROLE_ADMIN", "ADMIN");
+
     @Autowired
     CommentRepository commentRepository;
 
@@ -35,6 +45,15 @@ public class CommentServiceImplementation {
     @Autowired
     DreamRepository dreamRepository;
 
+    @Autowired
+    TrendingEngine trendingEngine;
+
+    @Autowired
+    OptimisticRetry optimisticRetry;
+
+    @Autowired
+    DreamEventBroadcaster dreamEvents;
+
     private UserMinimalDto toUserMinimalDto(User user) {
         if (user == null)
             return null;
@@ -50,10 +69,10 @@ public class CommentServiceImplementation {
             return null;
         DreamMinimalDto dto = new DreamMinimalDto();
         dto.setDreamId(dream.getDreamId());
-        // Truncate content for minimal DTO
-        dto.setContent(dream.getContent() != null && dream.getContent().length() > 50
-                ? dream.getContent().substring(0, 50) + "..."
-                : dream.getContent());
+        // Truncate the stored snippet further for the minimal DTO
+        dto.setContent(dream.getSnippet() != null && dream.getSnippet().length() > 50
+                ? dream.getSnippet().substring(0, 50) + "..."
+                : dream.getSnippet());
         dto.setVisibility(dream.getVisibility());
         return dto;
     }
@@ -71,31 +90,72 @@ public class CommentServiceImplementation {
         return dto;
     }
 
-    public CommentResponseDto updateComment(Long id, CommentRequestDto requestDto) {
-        Comment existingComment = commentRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Comment not found with ID: " + id));
-
-        User requestingUser = userRepository.findById(requestDto.getUserId())
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Requesting user not found with ID: " + requestDto.getUserId()));
-
-        // Basic authorization check: Only the comment author can update
-        if (!existingComment.getUser().getUserId().equals(requestingUser.getUserId())) {
-            throw new BadRequestException("You are not authorized to update this comment.");
+    private CommentResponseDto toCommentResponseDto(CommentListView comment, DreamMinimalDto dream) {
+        CommentResponseDto dto = new CommentResponseDto();
+        dto.setCommentId(comment.getCommentId());
+        dto.setCommentText(comment.getCommentText());
+        dto.setCreatedAt(comment.getCreatedAt());
+        dto.setVisibility(comment.getVisibility());
+        dto.setDream(dream);
+        if (comment.getUserId() != null) {
+            UserMinimalDto user = new UserMinimalDto();
+            user.setUserId(comment.getUserId());
+            user.setUsername(comment.getUsername());
+            user.setFirstName(comment.getFirstName());
+            dto.setUser(user);
         }
+        return dto;
+    }
 
-        existingComment.setCommentText(requestDto.getCommentText());
-        // Update visibility if provided and valid
-        Optional.ofNullable(requestDto.getVisibility())
-                .filter(v -> v.equals("public") || v.equals("private"))
-                .ifPresent(existingComment::setVisibility);
-
-        Comment updatedComment = commentRepository.save(existingComment);
-
-        CommentResponseDto commentResponseDto = toCommentResponseDto(updatedComment);
-
-        return commentResponseDto;
+    /**
+     * @return The ETag of the comment list getCommentByDream serves this viewer, derived from
+     *         the newest change and the size of that same list.
+     */
+    public String getCommentsETag(Long dreamId) {
+        // Stamp only the rows the viewer is served, so a change to a private comment does not
+        // invalidate the public list
+        if (viewerIsAdmin()) {
+            return ETags.of("all-comments", dreamId, commentRepository.findVersionStampByDreamId(dreamId));
+        }
+        return ETags.of("comments", dreamId, commentRepository.findVersionStampByDreamIdAndVisibility(dreamId, PUBLIC));
+    }
 
+    /**
+     * Updates a comment's text and visibility. Runs under OptimisticRetry, so an update that
+     * races with another one is applied again to the newer row instead of overwriting it.
+     */
+    public CommentResponseDto updateComment(Long id, CommentRequestDto requestDto) {
+        return optimisticRetry.execute(status -> {
+            Comment existingComment = commentRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Comment not found with ID: " + id));
+
+            User requestingUser = userRepository.findById(requestDto.getUserId())
+                    .orElseThrow(() -> new EntityNotFoundException(
+                            "Requesting user not found with ID: " + requestDto.getUserId()));
+
+            // Basic authorization check: Only the comment author can update
+            if (!existingComment.getUser().getUserId().equals(requestingUser.getUserId())) {
+                throw new BadRequestException("You are not authorized to update this comment.");
+            }
+
+            existingComment.setCommentText(requestDto.getCommentText());
+            boolean wasPublic = PUBLIC.equals(existingComment.getVisibility());
+            // Update visibility if provided and valid
+            Optional.ofNullable(requestDto.getVisibility())
+                    .filter(v -> v.equals(PUBLIC) || v.equals(PRIVATE))
+                    .ifPresent(existingComment::setVisibility);
+            boolean isPublic = PUBLIC.equals(existingComment.getVisibility());
+            existingComment.setLastUpdated(LocalDateTime.now());
+
+            Comment updatedComment = commentRepository.save(existingComment);
+            if (wasPublic != isPublic) {
+                // Only once the attempt that wins commits, as a lost one is run again
+                Long dreamId = existingComment.getDream().getDreamId();
+                TransactionHooks.afterCommit(() -> trendingEngine.commentsChanged(dreamId, isPublic ? 1 : -1));
+            }
+
+            return toCommentResponseDto(updatedComment);
+        });
     }
 
     public CommentResponseDto createComment(CommentRequestDto requestDto) {
@@ -103,7 +163,7 @@ public class CommentServiceImplementation {
         User user = userRepository.findById(requestDto.getUserId())
                 .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + requestDto.getUserId()));
 
-        Dream dream = dreamRepository.findById(requestDto.getDreamId())
+        Dream dream = dreamRepository.findByDreamIdAndDeletedAtIsNull(requestDto.getDreamId())
                 .orElseThrow(() -> new EntityNotFoundException("Dream not found with ID: " + requestDto.getDreamId()));
 
         // 2. Create Comment entity
@@ -115,11 +175,19 @@ public class CommentServiceImplementation {
 
         // Set visibility, defaulting to "public"
         comment.setVisibility(Optional.ofNullable(requestDto.getVisibility())
-                .filter(v -> v.equals("public") || v.equals("private"))
-                .orElse("public"));
+                .filter(v -> v.equals(PUBLIC) || v.equals(PRIVATE))
+                .orElse(PUBLIC));
 
         // 3. Save to database directly via repository
         Comment savedComment = commentRepository.save(comment);
+        if (PUBLIC.equals(savedComment.getVisibility())) {
+            // Counted only once the comment commits, as updateComment and deleteComment do
+            Long dreamId = dream.getDreamId();
+            TransactionHooks.afterCommit(() -> {
+                trendingEngine.commentsChanged(dreamId, 1);
+                dreamEvents.changed(dreamId);
+            });
+        }
 
         // 4. Convert and return DTO
         return toCommentResponseDto(savedComment);
@@ -143,38 +211,56 @@ public class CommentServiceImplementation {
     }
 
     public List<CommentResponseDto> getCommentByDream(Long dreamId) {
-        Dream dream = dreamRepository.findById(dreamId)
+        Dream dream = dreamRepository.findByDreamIdAndDeletedAtIsNull(dreamId)
                 .orElseThrow(() -> new EntityNotFoundException("Dream not found with ID: " + dreamId));
 
-        List<Comment> comments;
-        comments = commentRepository.findByDreamOrderByCreatedAtAsc(dream);
-        // Basic visibility logic here (e.g., if user is admin, show all; otherwise,
-        // only public)
-        // if ("ADMIN".equalsIgnoreCase(userRole)) { // Example admin role check
-        // } else {
-            // comments = commentRepository.findByDreamAndVisibilityOrderByCreatedAtAsc(dream, "public");
-        // }
+        // Every comment shares the same dream, so build its minimal DTO once and
+        // load only the comment and author columns per row
+        DreamMinimalDto dreamDto = toDreamMinimalDto(dream);
+        // Admins see every comment; everyone else only reads the public rows, through
+        // idx_comment_dream_visibility_created_at
+        List<CommentListView> comments = viewerIsAdmin()
+                ? commentRepository.findListViewsByDreamId(dreamId)
+                : commentRepository.findListViewsByDreamIdAndVisibility(dreamId, PUBLIC);
         return comments.stream()
-                .map(this::toCommentResponseDto)
+                .map(comment -> toCommentResponseDto(comment, dreamDto))
                 .collect(Collectors.toList());
     }
 
+    // Retried like updateComment when the comment is saved concurrently
     public void deleteComment(Long commentId, Long requestingUserId) {
-        Comment commentToDelete = commentRepository.findById(commentId)
-                .orElseThrow(() -> new EntityNotFoundException("Comment not found with ID: " + commentId));
-
-        User requestingUser = userRepository.findById(requestingUserId)
-                .orElseThrow(
-                        () -> new EntityNotFoundException("Requesting user not found with ID: " + requestingUserId));
-
-        // Basic authorization check: Only the comment author can delete (or an admin,
-        // if implemented)
-        if (!commentToDelete.getUser().getUserId().equals(requestingUser.getUserId())) {
-            // In a real app, you'd also check if requestingUser has ADMIN role here
-            throw new BadCredentialsException("You are not authorized to delete this comment.");
-        }
+        optimisticRetry.execute(status -> {
+            Comment commentToDelete = commentRepository.findById(commentId)
+                    .orElseThrow(() -> new EntityNotFoundException("Comment not found with ID: " + commentId));
+
+            User requestingUser = userRepository.findById(requestingUserId)
+                    .orElseThrow(() -> new EntityNotFoundException(
+                            "Requesting user not found with ID: " + requestingUserId));
+
+            // Basic authorization check: Only the comment author can delete (or an admin,
+            // if implemented)
+            if (!commentToDelete.getUser().getUserId().equals(requestingUser.getUserId())) {
+                // In a real app, you'd also check if requestingUser has ADMIN role here
+                throw new BadCredentialsException("You are not authorized to delete this comment.");
+            }
+
+            commentRepository.delete(commentToDelete);
+            if (PUBLIC.equals(commentToDelete.getVisibility())) {
+                Long dreamId = commentToDelete.getDream().getDreamId();
+                TransactionHooks.afterCommit(() -> {
+                    trendingEngine.commentsChanged(dreamId, -1);
+                    dreamEvents.changed(dreamId);
+                });
+            }
+            return null;
+        });
+    }
 
-        commentRepository.delete(commentToDelete);
+    // Role is taken from the authenticated principal, never from request parameters
+    private boolean viewerIsAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> ADMIN_AUTHORITIES.contains(authority.getAuthority()));
     }
 
 }
@@ -20,7 +20,9 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // Deleted accounts can no longer sign in, and their existing tokens stop working
         User user = userRepository.findByUsername(username)
+                .filter(found -> found.getDeletedAt() == null)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         return new org.springframework.security.core.userdetails.User(
@@ -0,0 +1,65 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.dreamblog.model.CompressedTextConverter;
+import com.cdac.dreamblog.repository.DreamBodyRepository;
+
+/**
+ * Rewrites dream bodies that were stored before compression was introduced.
+ * Runs after {@link DreamBodyMigration}, one short transaction per batch, and
+ * only touches rows that are long enough to compress and were never tried. Rows that
+ * do not get smaller are rewritten in the converter's marked raw form, so the next
+ * startup skips them.
+ */
+@Component
+public class DreamBodyCompressionMigration {
+
+    private static final int BATCH_SIZE = 200;
+
+    @Autowired
+    private DreamBodyRepository dreamBodyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final CompressedTextConverter converter = new CompressedTextConverter();
+
+    @Order(2)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        long lastDreamId = 0L;
+        int[] counts = new int[2]; // compressed, marked raw
+        while (true) {
+            List<Long> ids = dreamBodyRepository.findUncompressedIds(lastDreamId, CompressedTextConverter.THRESHOLD,
+                    CompressedTextConverter.MARKER + "%", BATCH_SIZE);
+            if (ids.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> compressBatch(ids, counts));
+            lastDreamId = ids.get(ids.size() - 1);
+        }
+        if (counts[0] + counts[1] > 0) {
+            System.out.println("Compressed " + counts[0] + " stored dream bodies, " + counts[1]
+                    + " did not get smaller and were marked as checked");
+        }
+    }
+
+    private void compressBatch(List<Long> ids, int[] counts) {
+        for (Long id : ids) {
+            String stored = dreamBodyRepository.findStoredContent(id);
+            String recoded = converter.convertToDatabaseColumn(converter.convertToEntityAttribute(stored));
+            if (recoded != null && !recoded.equals(stored)) {
+                int rewritten = dreamBodyRepository.updateStoredContent(id, recoded);
+                counts[CompressedTextConverter.isCompressed(recoded) ? 0 : 1] += rewritten;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.dreamblog.model.Dream;
+import com.cdac.dreamblog.model.DreamBody;
+import com.cdac.dreamblog.repository.DreamBodyRepository;
+import com.cdac.dreamblog.repository.DreamRepository;
+
+/**
+ * Moves dream text written before the dream_body split out of the dream table.
+ * Runs once the application is up, one short transaction per batch, and is a
+ * no-op when nothing is left to move.
+ */
+@Component
+public class DreamBodyMigration {
+
+    private static final int BATCH_SIZE = 200;
+
+    @Autowired
+    private DreamRepository dreamRepository;
+
+    @Autowired
+    private DreamBodyRepository dreamBodyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        long lastDreamId = 0L;
+        while (true) {
+            final long after = lastDreamId;
+            Long batchLastId = transactionTemplate.execute(status -> migrateBatch(after));
+            if (batchLastId == null) {
+                break;
+            }
+            lastDreamId = batchLastId;
+        }
+        if (lastDreamId > 0) {
+            System.out.println("Moved legacy dream bodies up to dream ID " + lastDreamId);
+        }
+    }
+
+    // Returns the last dream ID handled, or null when there was nothing to move
+    private Long migrateBatch(long afterDreamId) {
+        List<Dream> dreams = dreamRepository.findByLegacyContentIsNotNullAndDreamIdGreaterThanOrderByDreamIdAsc(
+                afterDreamId, PageRequest.of(0, BATCH_SIZE));
+        if (dreams.isEmpty()) {
+            return null;
+        }
+        for (Dream dream : dreams) {
+            String content = dream.getLegacyContent();
+            if (!dreamBodyRepository.existsById(dream.getDreamId())) {
+                dreamBodyRepository.save(DreamBody.of(dream.getDreamId(), content));
+            }
+            dream.setSnippet(Dream.toSnippet(content));
+            dream.setLegacyContent(null);
+        }
+        dreamRepository.saveAll(dreams);
+        return dreams.get(dreams.size() - 1).getDreamId();
+    }
+}
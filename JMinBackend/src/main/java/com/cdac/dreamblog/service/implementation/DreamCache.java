@@ -0,0 +1,118 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.cdac.dreamblog.dto.response.DreamResponseDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bounded read-through cache of single dreams by ID, so the few dreams that take most of
+ * the traffic are served without a query each time.
+ *
+ * Entries are dropped on every write to the dream, once right away and once more after the
+ * writing transaction commits, so a read that loaded the old row while the write was in
+ * flight cannot leave it behind. Changes made elsewhere (e.g. the author renaming
+ * themselves) are picked up when the entry expires.
+ *
+ * Reaction counters are cached apart from the dream, so writing a batch of reactions
+ * (ReactionAggregator) only drops the counters of the dreams it touched.
+ *
+ * Cached DTOs are shared between requests and must not be modified by callers.
+ */
+@Component
+public class DreamCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${dreamblog.cache.dreams.max-size:10000}")
+    private long maxSize;
+
+    @Value("${dreamblog.cache.dreams.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private Cache<Long, DreamResponseDto> dreams;
+
+    private Cache<Long, Map<String, Long>> reactionCounts;
+
+    @PostConstruct
+    void init() {
+        dreams = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        reactionCounts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        monitor(dreams, "dreams");
+        monitor(reactionCounts, "dreamReactionCounts");
+    }
+
+    /**
+     * @param loader Loads the dream on a miss; a null result is returned but not cached.
+     * @return The cached or freshly loaded dream, or null if it does not exist.
+     */
+    public DreamResponseDto getDream(Long dreamId, Function<Long, DreamResponseDto> loader) {
+        return dreams.get(dreamId, loader);
+    }
+
+    /**
+     * @param loader Loads the stored counters by reaction type on a miss.
+     */
+    public Map<String, Long> getReactionCounts(Long dreamId, Function<Long, Map<String, Long>> loader) {
+        return reactionCounts.get(dreamId, loader);
+    }
+
+    /**
+     * Drops everything cached for a dream. Call from the method that changes it.
+     */
+    public void evict(Long dreamId) {
+        invalidate(dreamId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(dreamId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drops the cached counters of a dream. Call once new counter values have committed.
+     */
+    public void evictReactionCounts(Long dreamId) {
+        reactionCounts.invalidate(dreamId);
+    }
+
+    private void invalidate(Long dreamId) {
+        dreams.invalidate(dreamId);
+        reactionCounts.invalidate(dreamId);
+    }
+
+    // Publishes cache.gets/cache.evictions/... plus a dreamblog.cache.hit.ratio gauge
+    private void monitor(Cache<Long, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Gauge.builder("dreamblog.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", name)
+                .description("Share of lookups served from the cache since startup")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,155 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.cdac.dreamblog.dto.response.DreamCountsDto;
+import com.cdac.dreamblog.repository.CommentRepository;
+import com.cdac.dreamblog.repository.projection.DreamCommentCount;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes a dream's reaction and comment counts to clients subscribed over Server-Sent
+ * Events, so an open dream page stays current without reloading.
+ *
+ * Writers only mark a dream as changed. Every interval-ms each changed dream that has
+ * subscribers gets one "counts" event, however many reactions and comments came in
+ * meanwhile, and its counts are read once for all of its subscribers. Events are sent on a
+ * fixed pool of threads; between events an open connection holds no thread, only its
+ * SseEmitter. Subscribers that disconnect, time out or fail a send are dropped.
+ */
+@Component
+public class DreamEventBroadcaster {
+
+    @Autowired
+    private ReactionAggregator reactionAggregator;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    // Threads sending events to subscribers
+    @Value("${dreamblog.events.threads:4}")
+    private int threads;
+
+    // How long a subscription stays open before the client has to reconnect
+    @Value("${dreamblog.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    // Open subscriptions by dream ID; a dream's entry goes when its last subscriber does
+    private final ConcurrentMap<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    // Dreams with subscribers whose counts changed since the last publish
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService senders;
+
+    @PostConstruct
+    void init() {
+        senders = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Opens a subscription to a dream's counts. The current counts are sent right away.
+     */
+    public SseEmitter subscribe(Long dreamId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> unsubscribe(dreamId, emitter));
+        emitter.onTimeout(() -> unsubscribe(dreamId, emitter));
+        emitter.onError(e -> unsubscribe(dreamId, emitter));
+        subscribers.compute(dreamId, (id, dreamSubscribers) -> {
+            Set<SseEmitter> updated = dreamSubscribers == null ? ConcurrentHashMap.newKeySet() : dreamSubscribers;
+            updated.add(emitter);
+            return updated;
+        });
+        // Held by the emitter until the response starts
+        send(dreamId, emitter, counts(dreamId));
+        return emitter;
+    }
+
+    /**
+     * Marks a dream's counts as changed; its subscribers hear about it on the next publish.
+     */
+    public void changed(Long dreamId) {
+        if (subscribers.containsKey(dreamId)) {
+            changed.add(dreamId);
+        }
+    }
+
+    /**
+     * Sends one event per changed dream to its subscribers. A dream changed again while
+     * this runs is sent on the next run.
+     */
+    @Scheduled(fixedDelayString = "${dreamblog.events.interval-ms:1000}")
+    public void publish() {
+        for (Iterator<Long> it = changed.iterator(); it.hasNext();) {
+            Long dreamId = it.next();
+            it.remove();
+            Set<SseEmitter> dreamSubscribers = subscribers.get(dreamId);
+            if (dreamSubscribers != null) {
+                senders.execute(() -> broadcast(dreamId, dreamSubscribers));
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+        subscribers.values().forEach(dreamSubscribers -> dreamSubscribers.forEach(SseEmitter::complete));
+        subscribers.clear();
+    }
+
+    private void broadcast(Long dreamId, Set<SseEmitter> dreamSubscribers) {
+        DreamCountsDto counts;
+        try {
+            counts = counts(dreamId);
+        } catch (RuntimeException e) {
+            System.out.println("Could not read counts of dream " + dreamId + ": " + e.getMessage());
+            return;
+        }
+        for (SseEmitter emitter : dreamSubscribers) {
+            send(dreamId, emitter, counts);
+        }
+    }
+
+    private void send(Long dreamId, SseEmitter emitter, DreamCountsDto counts) {
+        try {
+            emitter.send(SseEmitter.event().name("counts").data(counts, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // Closed by the client, or already completed
+            unsubscribe(dreamId, emitter);
+        }
+    }
+
+    private void unsubscribe(Long dreamId, SseEmitter emitter) {
+        subscribers.computeIfPresent(dreamId, (id, dreamSubscribers) -> {
+            dreamSubscribers.remove(emitter);
+            return dreamSubscribers.isEmpty() ? null : dreamSubscribers;
+        });
+    }
+
+    private DreamCountsDto counts(Long dreamId) {
+        DreamCountsDto counts = new DreamCountsDto();
+        counts.setDreamId(dreamId);
+        counts.setReactionCounts(reactionAggregator.currentCounts(dreamId));
+        counts.setCommentCount(commentRepository.countPublicByDreamIds(List.of(dreamId)).stream()
+                .findFirst()
+                .map(DreamCommentCount::getCommentCount)
+                .orElse(0L));
+        return counts;
+    }
+}
@@ -0,0 +1,39 @@
+package com.cdac.dreamblog.service.implementation;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.cdac.dreamblog.model.Dream;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Moves the Dream ID block counter past the highest existing dream ID. Dreams written while
+ * the table still used AUTO_INCREMENT would otherwise collide with the first generated blocks.
+ * Runs during startup, after Hibernate has updated the schema and before any request is served.
+ */
+@Component
+public class DreamIdGeneratorSeed {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Injected only so the schema (including the generator table) exists before seeding
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void seed() {
+        Long maxDreamId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(dream_id), 0) FROM dream", Long.class);
+        // Past the highest ID by more than a block, whichever way the optimizer reads the counter
+        long floor = maxDreamId + Dream.ID_ALLOCATION_SIZE + 1;
+        int updated = jdbcTemplate.update("UPDATE " + Dream.ID_GENERATOR_TABLE
+                + " SET next_val = GREATEST(next_val, ?) WHERE name = 'dream'", floor);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO " + Dream.ID_GENERATOR_TABLE + " (name, next_val) VALUES ('dream', ?)",
+                    floor);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.dreamblog.enums.ReactionType;
+import com.cdac.dreamblog.model.Dream;
+import com.cdac.dreamblog.model.DreamReaction;
+import com.cdac.dreamblog.repository.DreamRepository;
+import com.cdac.dreamblog.repository.ReactionCountRepository;
+import com.cdac.dreamblog.repository.ReactionRepository;
+
+/**
+ * Moves reactions stored in the reactions_data JSON column into dream_reaction, and
+ * fills dream_reaction_count the first time it is found empty while reactions exist.
+ * Runs before the trending engine loads reaction counts, one short transaction per
+ * batch, and is a no-op when nothing is left to move. Types are normalized to their
+ * lowercase codes and entries of unknown types are skipped. Rows are upserted and counters
+ * recounted, so a batch interrupted half way is simply moved again on the next start.
+ *
+ * It runs on ApplicationReadyEvent, so requests are already being served. Each dream's
+ * reaction rows are locked first, as ReactionAggregator locks them before it moves counters.
+ * A legacy entry never replaces a newer reaction, so a reaction made since startup wins.
+ * The legacy column is then cleared on its own, so edits made to the dream meanwhile are
+ * kept.
+ */
+@Component
+public class DreamReactionMigration {
+
+    private static final int BATCH_SIZE = 200;
+
+    // Dream IDs covered by one counter rebuild statement
+    private static final long RECOUNT_RANGE = 1000L;
+
+    @Autowired
+    private DreamRepository dreamRepository;
+
+    @Autowired
+    private ReactionRepository reactionRepository;
+
+    @Autowired
+    private ReactionCountRepository reactionCountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Order(2)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        backfillCounters();
+        long lastDreamId = 0L;
+        int moved = 0;
+        while (true) {
+            final long after = lastDreamId;
+            List<Dream> dreams = transactionTemplate.execute(status -> migrateBatch(after));
+            if (dreams == null || dreams.isEmpty()) {
+                break;
+            }
+            moved += dreams.size();
+            lastDreamId = dreams.get(dreams.size() - 1).getDreamId();
+        }
+        if (moved > 0) {
+            System.out.println("Moved legacy reactions of " + moved + " dreams into dream_reaction");
+        }
+    }
+
+    private void backfillCounters() {
+        if (reactionCountRepository.count() > 0) {
+            return;
+        }
+        Long maxDreamId = reactionRepository.findMaxDreamId();
+        if (maxDreamId == null) {
+            return;
+        }
+        for (long after = 0L; after < maxDreamId; after += RECOUNT_RANGE) {
+            final long from = after;
+            transactionTemplate.executeWithoutResult(status ->
+                    reactionCountRepository.recount(from, from + RECOUNT_RANGE, LocalDateTime.now()));
+        }
+        System.out.println("Built reaction counters for dreams up to ID " + maxDreamId);
+    }
+
+    // Returns the dreams handled, empty when there was nothing to move
+    private List<Dream> migrateBatch(long afterDreamId) {
+        List<Dream> dreams = dreamRepository.findByLegacyReactionsIsNotNullAndDreamIdGreaterThanOrderByDreamIdAsc(
+                afterDreamId, PageRequest.of(0, BATCH_SIZE));
+        for (Dream dream : dreams) {
+            // Held until the batch commits, so a reaction flush on this dream waits and then
+            // moves the counters from the recounted values
+            reactionRepository.findAllByDreamIdForUpdate(dream.getDreamId());
+            // The old list could hold several entries per user; the last one won
+            Map<Long, DreamReaction> byUser = new LinkedHashMap<>();
+            Set<String> unknownTypes = new LinkedHashSet<>();
+            for (DreamReaction reaction : dream.getLegacyReactions()) {
+                if (reaction == null || reaction.getUserId() == null || reaction.getType() == null) {
+                    continue;
+                }
+                // Old clients sent free-form types; store only the lowercase codes readers expect
+                ReactionType type;
+                try {
+                    type = ReactionType.fromCode(reaction.getType());
+                } catch (IllegalArgumentException e) {
+                    unknownTypes.add(reaction.getType());
+                    continue;
+                }
+                byUser.put(reaction.getUserId(),
+                        new DreamReaction(reaction.getUserId(), type.getCode(), reaction.getTimestamp()));
+            }
+            if (!unknownTypes.isEmpty()) {
+                System.out.println("Skipped legacy reactions of dream " + dream.getDreamId()
+                        + " with unknown types " + unknownTypes);
+            }
+            for (DreamReaction reaction : byUser.values()) {
+                LocalDateTime reactedAt = reaction.getTimestamp() != null ? reaction.getTimestamp()
+                        : dream.getCreatedAt();
+                reactionRepository.upsertUnlessNewer(dream.getDreamId(), reaction.getUserId(), reaction.getType(),
+                        reactedAt);
+            }
+            reactionCountRepository.deleteByDreamId(dream.getDreamId());
+            reactionCountRepository.recount(dream.getDreamId() - 1, dream.getDreamId(), LocalDateTime.now());
+        }
+        if (!dreams.isEmpty()) {
+            dreamRepository.clearLegacyReactions(dreams.stream().map(Dream::getDreamId).collect(Collectors.toList()));
+        }
+        return dreams;
+    }
+}
@@ -0,0 +1,259 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.cdac.dreamblog.exception.BadRequestException;
+import com.cdac.dreamblog.model.Dream;
+import com.cdac.dreamblog.model.DreamBody;
+import com.cdac.dreamblog.repository.DreamBodyRepository;
+import com.cdac.dreamblog.repository.DreamRepository;
+import com.cdac.dreamblog.util.TransactionHooks;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Full-text index of dream titles, bodies and tags, kept in a Lucene index on local disk.
+ *
+ * Dreams are indexed as they are created, updated and deleted (after the writing transaction
+ * commits) and searches see those changes on their next call. Changes are committed to disk
+ * on a schedule and on shutdown; if the index is empty at startup, or a rebuild is asked for,
+ * it is rebuilt from the database in ID-ordered batches.
+ *
+ * Private dreams are indexed too and filtered at query time, so their authors can find them.
+ */
+@Component
+public class DreamSearchIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 200;
+    private static final String PUBLIC = "public";
+    private static final String PRIVATE = "private";
+    private static final String[] SEARCH_FIELDS = { "title", "tags", "content" };
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of("title", 3f, "tags", 2f, "content", 1f);
+
+    @Autowired
+    private DreamRepository dreamRepository;
+
+    @Autowired
+    private DreamBodyRepository dreamBodyRepository;
+
+    @Value("${dreamblog.search.index-dir:data/search-index}")
+    private String indexDir;
+
+    @Value("${dreamblog.search.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private FSDirectory directory;
+
+    private IndexWriter writer;
+
+    private SearcherManager searcherManager;
+
+    @PostConstruct
+    void open() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexDir));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @Order(4)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfNeeded() {
+        if (rebuildOnStartup || writer.getDocStats().numDocs == 0) {
+            int indexed = rebuild();
+            System.out.println("Search index rebuilt with " + indexed + " dreams");
+        }
+    }
+
+    /**
+     * Replaces the whole index with the dreams currently in the database.
+     * @return The number of dreams indexed.
+     */
+    public synchronized int rebuild() {
+        try {
+            writer.deleteAll();
+            int indexed = 0;
+            long lastDreamId = 0L;
+            while (true) {
+                List<Dream> dreams = dreamRepository.findByDreamIdGreaterThanAndDeletedAtIsNullOrderByDreamIdAsc(
+                        lastDreamId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                if (dreams.isEmpty()) {
+                    break;
+                }
+                Map<Long, String> bodies = dreamBodyRepository.findAllById(
+                        dreams.stream().map(Dream::getDreamId).collect(Collectors.toList()))
+                        .stream()
+                        .filter(body -> body.getContent() != null)
+                        .collect(Collectors.toMap(DreamBody::getDreamId, DreamBody::getContent));
+                for (Dream dream : dreams) {
+                    String content = bodies.getOrDefault(dream.getDreamId(), dream.getLegacyContent());
+                    writer.updateDocument(idTerm(dream.getDreamId()), toDocument(dream, content));
+                    indexed++;
+                }
+                lastDreamId = dreams.get(dreams.size() - 1).getDreamId();
+            }
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            return indexed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search index rebuild failed", e);
+        }
+    }
+
+    /**
+     * Adds or replaces a dream in the index once the current transaction commits.
+     * @param content The full dream body.
+     */
+    public void index(Dream dream, String content) {
+        Document document = toDocument(dream, content);
+        Long dreamId = dream.getDreamId();
+        afterCommit(() -> {
+            writer.updateDocument(idTerm(dreamId), document);
+            searcherManager.maybeRefresh();
+        });
+    }
+
+    /**
+     * Removes a dream from the index once the current transaction commits.
+     */
+    public void remove(Long dreamId) {
+        afterCommit(() -> {
+            writer.deleteDocuments(idTerm(dreamId));
+            searcherManager.maybeRefresh();
+        });
+    }
+
+    /**
+     * Ranked search over title, tags and body. Accepts the usual query syntax
+     * (quoted phrases, AND/OR, trailing wildcards).
+     * @param viewerId The requesting user; their own private dreams are included.
+     * @return Matching dream IDs, best match first.
+     */
+    public List<Long> search(String queryText, Long viewerId, int limit) {
+        if (queryText == null || queryText.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        Query text;
+        try {
+            text = new MultiFieldQueryParser(SEARCH_FIELDS, analyzer, FIELD_BOOSTS).parse(queryText);
+        } catch (ParseException e) {
+            throw new BadRequestException("Invalid search query: " + queryText);
+        }
+        BooleanQuery.Builder visible = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term("visibility", PUBLIC)), BooleanClause.Occur.SHOULD);
+        if (viewerId != null) {
+            visible.add(new TermQuery(new Term("authorId", viewerId.toString())), BooleanClause.Occur.SHOULD);
+        }
+        Query query = new BooleanQuery.Builder()
+                .add(text, BooleanClause.Occur.MUST)
+                .add(visible.build(), BooleanClause.Occur.FILTER)
+                .build();
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                List<Long> ids = new ArrayList<>();
+                for (ScoreDoc hit : searcher.search(query, limit).scoreDocs) {
+                    ids.add(Long.valueOf(searcher.storedFields().document(hit.doc).get("id")));
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${dreamblog.search.commit-ms:60000}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private static Document toDocument(Dream dream, String content) {
+        Document document = new Document();
+        document.add(new StringField("id", dream.getDreamId().toString(), Field.Store.YES));
+        document.add(new TextField("title", nullToEmpty(dream.getTitle()), Field.Store.NO));
+        document.add(new TextField("content", nullToEmpty(content), Field.Store.NO));
+        // Tags are stored comma-separated; the analyzer splits them on the commas
+        document.add(new TextField("tags", nullToEmpty(dream.getTags()), Field.Store.NO));
+        document.add(new StringField("visibility", PRIVATE.equals(dream.getVisibility()) ? PRIVATE : PUBLIC,
+                Field.Store.NO));
+        if (dream.getUser() != null) {
+            document.add(new StringField("authorId", dream.getUser().getUserId().toString(), Field.Store.NO));
+        }
+        return document;
+    }
+
+    private static Term idTerm(Long dreamId) {
+        return new Term("id", dreamId.toString());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    // Index changes must not outlive a rolled-back write, and must not fail the write either
+    private void afterCommit(IndexChange change) {
+        TransactionHooks.afterCommit(() -> apply(change));
+    }
+
+    private void apply(IndexChange change) {
+        try {
+            change.run();
+        } catch (IOException e) {
+            System.out.println("Search index update failed: " + e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexChange {
+        void run() throws IOException;
+    }
+}
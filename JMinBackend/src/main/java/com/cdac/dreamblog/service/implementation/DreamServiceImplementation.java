@@ -1,35 +1,88 @@
 package com.cdac.dreamblog.service.implementation;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.cdac.dreamblog.dto.DreamWithCommentsDto;
 import com.cdac.dreamblog.dto.UserMinimalDto;
 import com.cdac.dreamblog.dto.request.DreamRequestDto;
+import com.cdac.dreamblog.dto.response.BulkIngestResponseDto;
 import com.cdac.dreamblog.dto.response.CommentResponseDto;
+import com.cdac.dreamblog.dto.response.CursorPageResponseDto;
 import com.cdac.dreamblog.dto.response.DreamResponseDto;
+import com.cdac.dreamblog.dto.response.IngestResultDto;
+import com.cdac.dreamblog.dto.response.TagCountDto;
 import com.cdac.dreamblog.dto.response.UserResponseDto;
+import com.cdac.dreamblog.enums.ReactionType;
+import com.cdac.dreamblog.exception.BadRequestException;
 import com.cdac.dreamblog.exception.ResourceNotFoundException;
-import com.cdac.dreamblog.model.Comment;
 import com.cdac.dreamblog.model.Dream;
+import com.cdac.dreamblog.model.DreamBody;
+import com.cdac.dreamblog.model.DreamReaction;
+import com.cdac.dreamblog.model.DreamTag;
+import com.cdac.dreamblog.model.ReactionCount;
+import com.cdac.dreamblog.model.Tag;
 import com.cdac.dreamblog.model.User;
 import com.cdac.dreamblog.repository.CommentRepository;
+import com.cdac.dreamblog.repository.DreamBodyRepository;
 import com.cdac.dreamblog.repository.DreamRepository;
+import com.cdac.dreamblog.repository.DreamTagRepository;
+import com.cdac.dreamblog.repository.ReactionCountRepository;
+import com.cdac.dreamblog.repository.ReactionRepository;
 import com.cdac.dreamblog.repository.UserRepository;
-
+import com.cdac.dreamblog.repository.projection.CommentListView;
+import com.cdac.dreamblog.repository.projection.DreamCommentCount;
+import com.cdac.dreamblog.repository.projection.DreamListView;
+import com.cdac.dreamblog.util.DreamCursor;
+import com.cdac.dreamblog.util.ETags;
+import com.cdac.dreamblog.util.TransactionHooks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class DreamServiceImplementation {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+    private static final String INGEST_CREATED = "created";
+    private static final String INGEST_FAILED = "failed";
+
     @Autowired
     private DreamRepository dreamRepository;
 
@@ -39,15 +92,70 @@ public class DreamServiceImplementation {
     @Autowired
     private CommentRepository commentRepository;
 
-    private UserMinimalDto toUserMinimalDto(User user) {
-        if (user == null)
-            return null;
-        UserMinimalDto dto = new UserMinimalDto();
-        dto.setUserId(user.getUserId());
-        dto.setUsername(user.getUsername());
-        dto.setFirstName(user.getFirstName());
-        return dto;
-    }
+    @Autowired
+    private DreamBodyRepository dreamBodyRepository;
+
+    @Autowired
+    private TimelineStore timelineStore;
+
+    @Autowired
+    private DreamCache dreamCache;
+
+    @Autowired
+    private TrendingEngine trendingEngine;
+
+    @Autowired
+    private DreamSearchIndex searchIndex;
+
+    @Autowired
+    private DreamTagRepository dreamTagRepository;
+
+    @Autowired
+    private ReactionRepository reactionRepository;
+
+    @Autowired
+    private ReactionCountRepository reactionCountRepository;
+
+    @Autowired
+    private TagDictionary tagDictionary;
+
+    @Autowired
+    private TagIndex tagIndex;
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ViewCounter viewCounter;
+
+    @Autowired
+    private ReactionAggregator reactionAggregator;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private DreamEventBroadcaster dreamEvents;
+
+    // Items written per transaction by ingestDreams
+    @Value("${dreamblog.dreams.ingest-batch-size:500}")
+    private int ingestBatchSize;
+
+    // Trending dreams materialized for the ranking they were built from
+    private volatile TrendingPage trendingPage;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Upper bound on comments embedded per dream in list views
+    @Value("${dreamblog.dreams.comments-per-dream:5}")
+    private int commentsPerDream;
 
     // Add this method to convert User to UserResponseDto
     private UserResponseDto toUserResponseDto(User user) {
@@ -61,9 +169,17 @@ public class DreamServiceImplementation {
         return dto;
     }
 
-    private CommentResponseDto toCommentResponseDto(Comment comment) {
-        if (comment == null)
+    private UserMinimalDto toUserMinimalDto(Long userId, String username, String firstName) {
+        if (userId == null)
             return null;
+        UserMinimalDto dto = new UserMinimalDto();
+        dto.setUserId(userId);
+        dto.setUsername(username);
+        dto.setFirstName(firstName);
+        return dto;
+    }
+
+    private CommentResponseDto toCommentResponseDto(CommentListView comment) {
         CommentResponseDto dto = new CommentResponseDto();
         dto.setCommentId(comment.getCommentId());
         dto.setCommentText(comment.getCommentText());
@@ -72,33 +188,119 @@ public class DreamServiceImplementation {
         // For nested objects, ensure no circular references.
         // If CommentResponseDto has a Dream, set it to null here to break cycle.
         dto.setDream(null); // Explicitly setting to null to avoid circular
-        dto.setUser(toUserMinimalDto(comment.getUser()));
+        dto.setUser(toUserMinimalDto(comment.getUserId(), comment.getUsername(), comment.getFirstName()));
         return dto;
     }
 
-    private DreamWithCommentsDto toDreamWithCommentsDto(Dream dream) {
-        if (dream == null)
-            return null;
+    private DreamWithCommentsDto toDreamWithCommentsDto(DreamListView dream, List<CommentResponseDto> comments,
+            long commentCount, Map<String, Long> reactionCounts, List<DreamReaction> ownReactions) {
         DreamWithCommentsDto dto = new DreamWithCommentsDto();
         dto.setDreamId(dream.getDreamId());
-        dto.setContent(dream.getContent());
-        dto.setReactions(dream.getReactions());
+        dto.setContent(dream.getSnippet()); // list views carry the snippet, not the full body
+        dto.setReactionCounts(reactionCounts);
+        dto.setReactions(ownReactions);
         dto.setCreatedAt(dream.getCreatedAt());
         dto.setVisibility(dream.getVisibility());
         dto.setTitle(dream.getTitle());
+        dto.setViewCount((dream.getViewCount() == null ? 0L : dream.getViewCount())
+                + viewCounter.pending(dream.getDreamId()));
 
-        dto.setUser(toUserMinimalDto(dream.getUser()));
-        List<Comment> comments = commentRepository.findByDreamOrderByCreatedAtAsc(dream);
-        dto.setComments(comments.stream()
-                .map(this::toCommentResponseDto)
-                .collect(Collectors.toList()));
+        dto.setUser(toUserMinimalDto(dream.getUserId(), dream.getUsername(), dream.getFirstName()));
+        dto.setComments(comments);
+        dto.setCommentCount(commentCount);
         return dto;
     }
 
+    /**
+     * Maps a page of dreams to DTOs, loading their comments, reaction counters and the
+     * viewer's own reactions with one batched query each and their comment totals with
+     * one grouped count instead of one query per dream. Each dream carries at most
+     * commentsPerDream comments; individual reactions of other users are never loaded.
+     * Counters and own reactions include those still pending in ReactionAggregator.
+     */
+    private List<DreamWithCommentsDto> toDreamWithCommentsDtos(List<DreamListView> dreams) {
+        List<DreamWithCommentsDto> dtos = toSharedDreamDtos(dreams);
+        setOwnReactions(dtos);
+        return dtos;
+    }
+
+    // The part of the DTOs that is the same for every viewer; reactions are left empty
+    private List<DreamWithCommentsDto> toSharedDreamDtos(List<DreamListView> dreams) {
+        if (dreams.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> dreamIds = dreams.stream()
+                .map(DreamListView::getDreamId)
+                .collect(Collectors.toList());
+
+        List<Long> commentIds = commentRepository.findFirstCommentIdsForDreams(dreamIds, commentsPerDream);
+        List<CommentListView> comments = commentIds.isEmpty()
+                ? new ArrayList<>()
+                : commentRepository.findListViewsByIds(commentIds);
+        Map<Long, List<CommentResponseDto>> commentsByDream = comments.stream()
+                .collect(Collectors.groupingBy(CommentListView::getDreamId,
+                        Collectors.mapping(this::toCommentResponseDto, Collectors.toList())));
+
+        Map<Long, Long> countsByDream = commentRepository.countPublicByDreamIds(dreamIds).stream()
+                .collect(Collectors.toMap(DreamCommentCount::getDreamId, DreamCommentCount::getCommentCount));
+
+        Map<Long, Map<String, Long>> reactionCountsByDream = reactionCountRepository.findByDreamIds(dreamIds)
+                .stream()
+                .filter(counter -> counter.getCount() > 0)
+                .collect(Collectors.groupingBy(ReactionCount::getDreamId,
+                        Collectors.toMap(ReactionCount::getType, ReactionCount::getCount)));
+
+        return dreams.stream()
+                .map(dream -> toDreamWithCommentsDto(dream,
+                        commentsByDream.getOrDefault(dream.getDreamId(), new ArrayList<>()),
+                        countsByDream.getOrDefault(dream.getDreamId(), 0L),
+                        reactionAggregator.withPending(dream.getDreamId(),
+                                reactionCountsByDream.getOrDefault(dream.getDreamId(), Map.of())),
+                        new ArrayList<>()))
+                .collect(Collectors.toList());
+    }
+
+    // Sets each DTO's reactions to the current viewer's own reaction, if any
+    private void setOwnReactions(List<DreamWithCommentsDto> dtos) {
+        if (dtos.isEmpty()) {
+            return;
+        }
+        Map<Long, DreamReaction> own = ownReactions(currentViewerId(), dtos.stream()
+                .map(DreamWithCommentsDto::getDreamId)
+                .collect(Collectors.toList()));
+        for (DreamWithCommentsDto dto : dtos) {
+            DreamReaction reaction = own.get(dto.getDreamId());
+            dto.setReactions(reaction == null ? new ArrayList<>() : new ArrayList<>(List.of(reaction)));
+        }
+    }
+
+    // Shallow copy, for handing out a shared DTO with per-request fields set
+    private static DreamWithCommentsDto copyOf(DreamWithCommentsDto dto) {
+        DreamWithCommentsDto copy = new DreamWithCommentsDto();
+        copy.setDreamId(dto.getDreamId());
+        copy.setContent(dto.getContent());
+        copy.setTitle(dto.getTitle());
+        copy.setCreatedAt(dto.getCreatedAt());
+        copy.setReactions(dto.getReactions());
+        copy.setReactionCounts(dto.getReactionCounts());
+        copy.setVisibility(dto.getVisibility());
+        copy.setLocation(dto.getLocation());
+        copy.setUser(dto.getUser());
+        copy.setComments(dto.getComments());
+        copy.setCommentCount(dto.getCommentCount());
+        copy.setViewCount(dto.getViewCount());
+        return copy;
+    }
+
+    // Summary form: content carries the snippet so the body table is not read
     private DreamResponseDto toDreamResponseDto(Dream dream) {
+        return toDreamResponseDto(dream, dream.getSnippet());
+    }
+
+    private DreamResponseDto toDreamResponseDto(Dream dream, String content) {
         DreamResponseDto dreamResponseDto = new DreamResponseDto();
         dreamResponseDto.setDreamId(dream.getDreamId());
-        dreamResponseDto.setContent(dream.getContent());
+        dreamResponseDto.setContent(content);
         dreamResponseDto.setCreatedAt(dream.getCreatedAt());
         dreamResponseDto.setVisibility(dream.getVisibility());
         dreamResponseDto.setTitle(dream.getTitle());
@@ -107,102 +309,669 @@ public class DreamServiceImplementation {
         return dreamResponseDto;
     }
 
+    // Fills the reaction counters of a single dream from the cached dream_reaction_count rows
+    private DreamResponseDto withReactionCounts(DreamResponseDto dto) {
+        Map<String, Long> counts = reactionAggregator.currentCounts(dto.getDreamId());
+        dto.setReactionCounts(counts);
+        dto.setLikeCount(counts.getOrDefault(ReactionType.LIKE.getCode(), 0L).intValue());
+        dto.setDislikeCount(counts.getOrDefault(ReactionType.DISLIKE.getCode(), 0L).intValue());
+        return dto;
+    }
+
+    @Transactional
     public DreamResponseDto createDream(DreamRequestDto dreamRequestDto) {
         User user = userRepository.findById(dreamRequestDto.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
         Dream dream = new Dream();
         dream.setTitle(dreamRequestDto.getTitle());
-        dream.setContent(dreamRequestDto.getContent());
-        dream.setTags(dreamRequestDto.getTags());
-        dream.setVisibility(dreamRequestDto.getVisibility());
+        dream.setSnippet(Dream.toSnippet(dreamRequestDto.getContent()));
+        List<String> tagNames = Tag.parse(dreamRequestDto.getTags());
+        dream.setTags(tagNames.isEmpty() ? null : String.join(",", tagNames));
+        dream.setVisibility(Dream.normalizeVisibility(dreamRequestDto.getVisibility()));
         dream.setCreatedAt(LocalDateTime.now());
         dream.setUser(user);
         dreamRepository.save(dream);
-        return toDreamResponseDto(dream);
+        dreamBodyRepository.save(DreamBody.of(dream.getDreamId(), dreamRequestDto.getContent()));
+        tagDictionary.resolveIds(tagNames)
+                .forEach(tagId -> dreamTagRepository.save(DreamTag.of(dream.getDreamId(), tagId)));
+        timelineStore.fanOut(dream);
+        indexNewDream(dream, tagNames, dreamRequestDto.getContent());
+        return toDreamResponseDto(dream, dreamRequestDto.getContent());
+    }
+
+    // Adds a new dream to the in-memory tag, autocomplete, trending and search indexes
+    private void indexNewDream(Dream dream, List<String> tagNames, String content) {
+        boolean isPrivate = Dream.PRIVATE.equals(dream.getVisibility());
+        // A failed insert must leave no ghost ID in the tag postings or count in the tag trie
+        TransactionHooks.afterCommit(() -> {
+            tagIndex.add(dream.getDreamId(), tagNames, isPrivate);
+            if (!isPrivate) {
+                autocompleteService.tagsUsed(tagNames, 1);
+            }
+            trendingEngine.track(dream);
+        });
+        searchIndex.index(dream, content);
+    }
+
+    /**
+     * Creates dreams in bulk from a JSON array or a stream of newline-delimited JSON objects,
+     * each shaped like a POST /api/dreams body. createdAt may be given to keep the original date.
+     *
+     * Items are written ingestBatchSize at a time, one transaction per batch, with the authors
+     * of a batch loaded in one query and the rows sent as JDBC batches. An invalid item fails on
+     * its own; a batch that fails to write fails all its items, each result saying it was not
+     * stored, and ingest goes on with the next batch. Imported dreams are not pushed to followers'
+     * timelines; they appear when those timelines are next rebuilt.
+     * @param in The request body.
+     * @return One result per item, in input order.
+     */
+    public BulkIngestResponseDto ingestDreams(InputStream in) throws IOException {
+        BulkIngestResponseDto response = new BulkIngestResponseDto();
+        List<DreamRequestDto> batch = new ArrayList<>(ingestBatchSize);
+        int index = 0;
+        try (MappingIterator<DreamRequestDto> items = objectMapper.readerFor(DreamRequestDto.class).readValues(in)) {
+            while (true) {
+                DreamRequestDto item;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    item = items.nextValue();
+                } catch (JsonProcessingException e) {
+                    // The parser cannot resync after malformed JSON, so stop at this item
+                    response.getResults().addAll(ingestBatch(batch, index - batch.size()));
+                    batch.clear();
+                    response.getResults().add(ingestResult(index, null, "Malformed JSON: " + e.getOriginalMessage()));
+                    break;
+                } catch (IOException e) {
+                    response.getResults().addAll(ingestBatch(batch, index - batch.size()));
+                    batch.clear();
+                    response.getResults().add(ingestResult(index, null, "Could not read the body: " + e.getMessage()));
+                    break;
+                }
+                batch.add(item);
+                index++;
+                if (batch.size() == ingestBatchSize) {
+                    response.getResults().addAll(ingestBatch(batch, index - batch.size()));
+                    batch.clear();
+                }
+            }
+        }
+        response.getResults().addAll(ingestBatch(batch, index - batch.size()));
+        for (IngestResultDto result : response.getResults()) {
+            if (INGEST_CREATED.equals(result.getStatus())) {
+                response.setCreated(response.getCreated() + 1);
+            } else {
+                response.setFailed(response.getFailed() + 1);
+            }
+        }
+        return response;
+    }
+
+    private List<IngestResultDto> ingestBatch(List<DreamRequestDto> items, int firstIndex) {
+        List<IngestResultDto> results = new ArrayList<>(items.size());
+        if (items.isEmpty()) {
+            return results;
+        }
+        Map<Long, User> users;
+        try {
+            users = userRepository.findAllById(items.stream()
+                    .map(DreamRequestDto::getUserId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(User::getUserId, user -> user));
+        } catch (RuntimeException e) {
+            // Earlier batches are already stored, so fail only this one and carry on
+            String error = batchError(firstIndex, items.size(), e);
+            for (int i = 0; i < items.size(); i++) {
+                results.add(ingestResult(firstIndex + i, null, error));
+            }
+            return results;
+        }
+
+        // Position in items of every valid item, and the dream built from it
+        List<Integer> positions = new ArrayList<>();
+        List<Dream> dreams = new ArrayList<>();
+        List<List<String>> tagNames = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            DreamRequestDto item = items.get(i);
+            String error = validateIngestItem(item, users);
+            results.add(ingestResult(firstIndex + i, null, error));
+            if (error == null) {
+                List<String> names = Tag.parse(item.getTags());
+                Dream dream = new Dream();
+                dream.setTitle(item.getTitle());
+                dream.setSnippet(Dream.toSnippet(item.getContent()));
+                dream.setTags(names.isEmpty() ? null : String.join(",", names));
+                dream.setVisibility(Dream.normalizeVisibility(item.getVisibility()));
+                dream.setCreatedAt(item.getCreatedAt() != null ? item.getCreatedAt() : LocalDateTime.now());
+                dream.setUser(users.get(item.getUserId()));
+                positions.add(i);
+                dreams.add(dream);
+                tagNames.add(names);
+            }
+        }
+        if (dreams.isEmpty()) {
+            return results;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                dreamRepository.saveAll(dreams);
+                List<DreamBody> bodies = new ArrayList<>(dreams.size());
+                for (int i = 0; i < dreams.size(); i++) {
+                    bodies.add(DreamBody.of(dreams.get(i).getDreamId(), items.get(positions.get(i)).getContent()));
+                }
+                dreamBodyRepository.saveAll(bodies);
+
+                // Resolve every distinct tag of the batch in one go
+                List<String> distinctNames = tagNames.stream().flatMap(List::stream).distinct()
+                        .collect(Collectors.toList());
+                List<Long> tagIds = tagDictionary.resolveIds(distinctNames);
+                Map<String, Long> tagIdsByName = new HashMap<>();
+                for (int i = 0; i < distinctNames.size(); i++) {
+                    tagIdsByName.put(distinctNames.get(i), tagIds.get(i));
+                }
+                List<DreamTag> dreamTags = new ArrayList<>();
+                for (int i = 0; i < dreams.size(); i++) {
+                    for (String name : tagNames.get(i)) {
+                        dreamTags.add(DreamTag.of(dreams.get(i).getDreamId(), tagIdsByName.get(name)));
+                    }
+                }
+                dreamTagRepository.saveAll(dreamTags);
+
+                for (int i = 0; i < dreams.size(); i++) {
+                    indexNewDream(dreams.get(i), tagNames.get(i), items.get(positions.get(i)).getContent());
+                }
+                // Send the batched inserts now and keep the persistence context from growing
+                entityManager.flush();
+                entityManager.clear();
+            });
+            for (int i = 0; i < dreams.size(); i++) {
+                IngestResultDto result = results.get(positions.get(i));
+                result.setStatus(INGEST_CREATED);
+                result.setDreamId(dreams.get(i).getDreamId());
+            }
+        } catch (RuntimeException e) {
+            // The whole batch rolled back: every item that passed validation was not stored
+            String error = batchError(firstIndex, items.size(), e);
+            System.out.println("Bulk ingest batch failed: " + error);
+            for (Integer position : positions) {
+                IngestResultDto result = results.get(position);
+                result.setStatus(INGEST_FAILED);
+                result.setDreamId(null);
+                result.setError(error);
+            }
+        }
+        return results;
     }
 
-    public List<DreamWithCommentsDto> getAllDreams() {
-        List<Dream> dream = dreamRepository.findAll();
+    private static String batchError(int firstIndex, int size, RuntimeException e) {
+        return "Not stored: the batch of items " + firstIndex + " to " + (firstIndex + size - 1) + " failed ("
+                + NestedExceptionUtils.getMostSpecificCause(e).getMessage() + ")";
+    }
+
+    private static String validateIngestItem(DreamRequestDto item, Map<Long, User> users) {
+        if (item == null) {
+            return "Item is null";
+        }
+        if (item.getUserId() == null) {
+            return "userId is required";
+        }
+        if (!users.containsKey(item.getUserId())) {
+            return "User not found with ID: " + item.getUserId();
+        }
+        if (item.getTitle() == null || item.getTitle().isBlank()) {
+            return "title is required";
+        }
+        if (item.getContent() == null || item.getContent().isBlank()) {
+            return "content is required";
+        }
+        return null;
+    }
+
+    private static IngestResultDto ingestResult(int index, Long dreamId, String error) {
+        IngestResultDto result = new IngestResultDto();
+        result.setIndex(index);
+        result.setDreamId(dreamId);
+        result.setStatus(error == null ? INGEST_CREATED : INGEST_FAILED);
+        result.setError(error);
+        return result;
+    }
+
+    /**
+     * Returns one page of dreams, newest first, using keyset pagination on
+     * (createdAt, dreamId) so the cost does not grow with scroll depth.
+     * @param before Opaque cursor from a previous page, or null for the first page.
+     * @param limit Requested page size; clamped to [1, MAX_PAGE_SIZE].
+     * @return The page of dreams and the cursor for the next page (null when exhausted).
+     */
+    public CursorPageResponseDto<DreamWithCommentsDto> getAllDreams(String before, Integer limit) {
+        return latestPage(before, limit, false);
+    }
+
+    /**
+     * Returns one page of every dream, private ones included, newest first; for the admin
+     * panel. Paged the same way as getAllDreams.
+     * @param before Opaque cursor from a previous page, or null for the first page.
+     * @param limit Requested page size; clamped to [1, MAX_PAGE_SIZE].
+     * @return The page of dreams and the cursor for the next page (null when exhausted).
+     */
+    public CursorPageResponseDto<DreamWithCommentsDto> getAllDreamsForAdmin(String before, Integer limit) {
+        return latestPage(before, limit, true);
+    }
+
+    private CursorPageResponseDto<DreamWithCommentsDto> latestPage(String before, Integer limit,
+            boolean includePrivate) {
+        int pageSize = clampPageSize(limit);
+        // Fetch one extra row to learn whether another page exists
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<DreamListView> dreams;
+        if (before == null || before.isBlank()) {
+            dreams = includePrivate
+                    ? dreamRepository.findLatest(pageable)
+                    : dreamRepository.findLatestPublic(pageable);
+        } else {
+            DreamCursor cursor = DreamCursor.decode(before);
+            dreams = includePrivate
+                    ? dreamRepository.findLatestBefore(cursor.getCreatedAt(), cursor.getDreamId(), pageable)
+                    : dreamRepository.findLatestPublicBefore(cursor.getCreatedAt(), cursor.getDreamId(), pageable);
+        }
+
+        boolean hasMore = dreams.size() > pageSize;
+        if (hasMore) {
+            dreams = dreams.subList(0, pageSize);
+        }
+
+        CursorPageResponseDto<DreamWithCommentsDto> page = new CursorPageResponseDto<>();
+        page.setItems(toDreamWithCommentsDtos(dreams));
+        if (hasMore) {
+            DreamListView last = dreams.get(dreams.size() - 1);
+            page.setNextCursor(new DreamCursor(last.getCreatedAt(), last.getDreamId()).encode());
+        }
+        return page;
+    }
 
-        List<DreamWithCommentsDto> dreamDtos = dream.stream()
-                .map(this::toDreamWithCommentsDto)
+    private int clampPageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Returns the top trending dreams. The dreams are loaded once per published ranking
+     * and served from memory until the next refresh; only the viewer's own reactions are
+     * read per request, onto copies of the shared DTOs.
+     * @param limit Maximum number of dreams, defaults to 20 and is capped at 100.
+     */
+    public List<DreamWithCommentsDto> getTrendingDreams(Integer limit) {
+        int pageSize = clampPageSize(limit);
+        List<Long> ids = trendingEngine.topIds();
+        TrendingPage page = trendingPage;
+        if (page == null || page.ids != ids) {
+            page = new TrendingPage(ids, List.copyOf(toSharedDreamDtos(listViewsInOrder(ids))));
+            trendingPage = page;
+        }
+        List<DreamWithCommentsDto> dreams = page.dreams.subList(0, Math.min(pageSize, page.dreams.size()))
+                .stream()
+                .map(DreamServiceImplementation::copyOf)
                 .collect(Collectors.toList());
+        setOwnReactions(dreams);
+        return dreams;
+    }
 
-        return dreamDtos;
+    /**
+     * Full-text search over dream titles, bodies and tags, best match first. Private dreams
+     * are only returned to their author.
+     * @param limit Maximum number of dreams, defaults to 20 and is capped at 100.
+     */
+    public List<DreamWithCommentsDto> searchDreams(String query, Integer limit) {
+        return getDreamsInOrder(searchIndex.search(query, currentViewerId(), clampPageSize(limit)));
     }
 
-    public DreamResponseDto getDreamById(Long id) {
-        Optional<Dream> dreamOptional = dreamRepository.findById(id);
-        return dreamOptional.map(this::toDreamResponseDto).orElse(null);
+    /**
+     * The current user's reaction type for each of the given dreams, so a page of dreams can
+     * be marked without loading their reactions.
+     * @param dreamIds Up to 100 dream IDs.
+     * @return Reaction type by dream ID, only for the dreams the user has reacted to.
+     */
+    public Map<Long, String> getMyReactions(List<Long> dreamIds) {
+        if (dreamIds.size() > MAX_PAGE_SIZE) {
+            throw new BadRequestException("At most " + MAX_PAGE_SIZE + " dream IDs can be looked up at once");
+        }
+        Map<Long, String> types = new HashMap<>();
+        ownReactions(currentViewerId(), new HashSet<>(dreamIds))
+                .forEach((dreamId, reaction) -> types.put(dreamId, reaction.getType()));
+        return types;
     }
 
-    public List<DreamWithCommentsDto> getDreamsByUserId(Long userId) {
-        // 1. Find the UserEntity first
-        Optional<User> userOptional = userRepository.findById(userId);
+    // A user's reactions to some dreams, read with one query on idx_dream_reaction_user
+    // (user_id, dream_id) and overlaid with the ones ReactionAggregator has not written yet
+    private Map<Long, DreamReaction> ownReactions(Long userId, Collection<Long> dreamIds) {
+        Map<Long, DreamReaction> reactions = new HashMap<>();
+        if (userId == null || dreamIds.isEmpty()) {
+            return reactions;
+        }
+        reactionRepository.findByUserIdAndDreamIds(userId, dreamIds)
+                .forEach(reaction -> reactions.put(reaction.getDreamId(), reaction.toDreamReaction()));
+        reactionAggregator.pendingReactions(userId, dreamIds).forEach((dreamId, reaction) -> {
+            if (reaction.getType() == null) {
+                reactions.remove(dreamId);
+            } else {
+                reactions.put(dreamId, reaction);
+            }
+        });
+        return reactions;
+    }
+
+    // ID of the authenticated user, or null for anonymous requests
+    private Long currentViewerId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null
+                : userRepository.findByUsername(authentication.getName()).map(User::getUserId).orElse(null);
+    }
+
+    /**
+     * Public dreams carrying a tag, newest first.
+     * @param before nextCursor from the previous page, or null for the newest dreams.
+     * @param limit Page size, defaults to 20 and is capped at 100.
+     */
+    public CursorPageResponseDto<DreamWithCommentsDto> getDreamsByTag(String tag, String before, Integer limit) {
+        return getDreamsByTags(List.of(tag), List.of(), List.of(), before, limit);
+    }
+
+    /**
+     * Public dreams matching a tag combination, newest first.
+     * @param all Tags a dream must all carry.
+     * @param any Tags of which a dream must carry at least one (ignored when empty).
+     * @param none Tags a dream must not carry.
+     */
+    public CursorPageResponseDto<DreamWithCommentsDto> getDreamsByTags(List<String> all, List<String> any,
+            List<String> none, String before, Integer limit) {
+        int pageSize = clampPageSize(limit);
+        List<Long> dreamIds = TagIndex.newestFirst(matchTags(all, any, none), parseDreamIdCursor(before),
+                pageSize + 1);
+        boolean hasMore = dreamIds.size() > pageSize;
+        if (hasMore) {
+            dreamIds = dreamIds.subList(0, pageSize);
+        }
+
+        CursorPageResponseDto<DreamWithCommentsDto> page = new CursorPageResponseDto<>();
+        page.setItems(getDreamsInOrder(dreamIds));
+        if (hasMore) {
+            page.setNextCursor(String.valueOf(dreamIds.get(dreamIds.size() - 1)));
+        }
+        return page;
+    }
+
+    /**
+     * @return The number of public dreams matching a tag combination.
+     */
+    public long countDreamsByTags(List<String> all, List<String> any, List<String> none) {
+        return matchTags(all, any, none).getLongCardinality();
+    }
+
+    /**
+     * @return The most used tags with their public dream counts.
+     */
+    public List<TagCountDto> getTopTags(Integer limit) {
+        return tagIndex.topTags(clampPageSize(limit));
+    }
 
-        if (userOptional.isEmpty()) {
-            // Return 404 Not Found if the user doesn't exist
-            // throw ResourceNotFoundException("user doesnt exist");
+    private RoaringBitmap matchTags(List<String> all, List<String> any, List<String> none) {
+        List<String> allTags = normalizeTags(all);
+        List<String> anyTags = normalizeTags(any);
+        if (allTags.isEmpty() && anyTags.isEmpty()) {
+            throw new BadRequestException("At least one tag is required");
         }
+        return tagIndex.match(allTags, anyTags, normalizeTags(none));
+    }
+
+    private static List<String> normalizeTags(List<String> tags) {
+        return tags == null ? List.of() : Tag.parse(String.join(",", tags));
+    }
 
-        User user = userOptional.get();
+    private Long parseDreamIdCursor(String before) {
+        if (before == null || before.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(before);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    // Holds no viewer's own reactions, as it is shared by every request
+    private static final class TrendingPage {
+        final List<Long> ids;
+        final List<DreamWithCommentsDto> dreams;
+
+        TrendingPage(List<Long> ids, List<DreamWithCommentsDto> dreams) {
+            this.ids = ids;
+            this.dreams = dreams;
+        }
+    }
 
-        // 2. Use a custom method in DreamRepository to find dreams by UserEntity
-        List<Dream> dreams = dreamRepository.findByUser(user);
+    /**
+     * Loads the given dreams with one IN (...) query and returns them in the order of the
+     * supplied IDs. IDs that no longer exist are skipped.
+     * @param dreamIds The dream IDs, in the desired output order.
+     * @return The dreams with their first comments.
+     */
+    public List<DreamWithCommentsDto> getDreamsInOrder(List<Long> dreamIds) {
+        return toDreamWithCommentsDtos(listViewsInOrder(dreamIds));
+    }
 
-        List<DreamWithCommentsDto> dreamDtos = dreams.stream()
-                .map(this::toDreamWithCommentsDto)
+    private List<DreamListView> listViewsInOrder(List<Long> dreamIds) {
+        if (dreamIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, DreamListView> dreamsById = dreamRepository.findListViewsByIds(dreamIds).stream()
+                .collect(Collectors.toMap(DreamListView::getDreamId, d -> d));
+        return dreamIds.stream()
+                .map(dreamsById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
-        // Or, if you prefer to find directly by user's ID (assuming DreamEntity has a
-        // direct userId column or a custom method):
-        // List<DreamEntity> dreams = dreamRepository.findByUserId(userId); // Requires
-        // this method in DreamRepositor
-        return dreamDtos;
     }
 
-    public DreamResponseDto updateDream(Long id, DreamRequestDto dreamRequestDto) {
-        Dream dream = dreamRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    /**
+     * Writes every dream as one JSON object per line (NDJSON). Rows are read through a
+     * database cursor and detached once written, so memory use does not depend on the
+     * number of dreams exported.
+     * @param out The response stream; it is flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public void exportDreams(OutputStream out) throws IOException {
+        try (Stream<Object[]> rows = dreamRepository.streamAllForExport()) {
+            Iterator<Object[]> iterator = rows.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                Dream dream = (Dream) row[0];
+                String content = row[1] != null ? (String) row[1] : dream.getLegacyContent();
+                out.write(objectMapper.writeValueAsBytes(toDreamResponseDto(dream, content)));
+                out.write('\n');
+                entityManager.detach(dream);
+                if (dream.getUser() != null) {
+                    entityManager.detach(dream.getUser());
+                }
+                if (++written % EXPORT_FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+    }
 
-        dream.setContent(dreamRequestDto.getContent());
-        dream.setTitle(dreamRequestDto.getTitle());
-        // dream.getTags(dreamRequestDto.getTags());
-        dream.setLastUpdated(LocalDateTime.now());
+    /**
+     * @return The ETag of a dream from its last change or reaction, including reactions not
+     *         written yet, or null if it does not exist.
+     */
+    public String getDreamETag(Long id) {
+        long pendingReactions = reactionAggregator.pendingVersion(id);
+        Object key = pendingReactions == 0 ? id : id + "p" + pendingReactions;
+        return ETags.of("dream", key, dreamRepository.findVersionStamp(id));
+    }
 
-        return toDreamResponseDto(dream);
+    /**
+     * Counts one view of a dream. Written to the database by the next ViewCounter flush.
+     */
+    public void recordView(Long id) {
+        viewCounter.record(id);
+    }
 
+    /**
+     * @return Views of a dream, including the ones not flushed to the database yet.
+     */
+    public long getViewCount(Long id) {
+        long stored = dreamRepository.findViewCount(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Dream not found with ID: " + id));
+        return stored + viewCounter.pending(id);
     }
 
-    public DreamResponseDto reactToDream(Long dreamId, Long userId, String reactionType) {
-        Dream dream = dreamRepository.findById(dreamId)
-                .orElseThrow(() -> new EntityNotFoundException("Dream not found"));
-        dream.addOrUpdateReaction(userId, reactionType);
-        DreamResponseDto dto = toDreamResponseDto(dreamRepository.save(dream));
-        return dto;
+    // The only read that returns the full body; list views use the stored snippet.
+    // The cached DTO is copied, as the counters are filled in per call.
+    public DreamResponseDto getDreamById(Long id) {
+        DreamResponseDto cached = dreamCache.getDream(id,
+                dreamId -> dreamRepository.findByDreamIdAndDeletedAtIsNull(dreamId)
+                        .map(dream -> toDreamResponseDto(dream, loadContent(dream)))
+                        .orElse(null));
+        if (cached == null) {
+            return null;
+        }
+        DreamResponseDto dto = new DreamResponseDto();
+        BeanUtils.copyProperties(cached, dto);
+        return withReactionCounts(dto);
+    }
+
+    private String loadContent(Dream dream) {
+        return dreamBodyRepository.findById(dream.getDreamId())
+                .map(DreamBody::getContent)
+                .orElse(dream.getLegacyContent());
+    }
+
+    public List<DreamWithCommentsDto> getDreamsByUserId(Long userId) {
+        // 1. Make sure the user exists without loading the whole row
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with ID: " + userId);
+        }
+
+        // 2. Load only the columns the list view needs, by the user's ID. Authors see
+        //    their private dreams too; everyone else only reads the public rows.
+        List<DreamListView> dreams = userId.equals(currentViewerId())
+                ? dreamRepository.findListViewsByUserId(userId)
+                : dreamRepository.findPublicListViewsByUserId(userId);
+
+        return toDreamWithCommentsDtos(dreams);
+    }
+
+    /**
+     * Replaces the title and body of a dream. Runs under OptimisticRetry: if the dream is
+     * saved by someone else meanwhile (e.g. deleted or made private), the update is applied
+     * again to the newer row instead of overwriting it.
+     */
+    public DreamResponseDto updateDream(Long id, DreamRequestDto dreamRequestDto) {
+        return optimisticRetry.execute(status -> {
+            Dream dream = dreamRepository.findByDreamIdAndDeletedAtIsNull(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+            DreamBody body = dreamBodyRepository.findById(id)
+                    .orElseGet(() -> DreamBody.of(id, null));
+            body.setContent(dreamRequestDto.getContent());
+            dreamBodyRepository.save(body);
+
+            dream.setSnippet(Dream.toSnippet(dreamRequestDto.getContent()));
+            dream.setLegacyContent(null);
+            dream.setTitle(dreamRequestDto.getTitle());
+            // dream.getTags(dreamRequestDto.getTags());
+            dream.setLastUpdated(LocalDateTime.now());
+            dreamRepository.save(dream);
+            dreamCache.evict(id);
+            searchIndex.index(dream, dreamRequestDto.getContent());
+
+            return toDreamResponseDto(dream, dreamRequestDto.getContent());
+        });
+    }
+
+    /**
+     * Sets a user's reaction to a dream, replacing any reaction they had. The reaction is
+     * queued in ReactionAggregator and written with the others of the same interval; the
+     * returned counters already include it.
+     */
+    public DreamResponseDto reactToDream(Long dreamId, Long userId, ReactionType reactionType) {
+        DreamResponseDto dream = getDreamById(dreamId);
+        if (dream == null) {
+            throw new EntityNotFoundException("Dream not found");
+        }
+        reactionAggregator.submit(dreamId, userId, reactionType);
+        dreamEvents.changed(dreamId);
+        return withReactionCounts(dream);
     }
 
-    public Dream removeDreamReaction(Long dreamId, Long userId) {
-        Dream dream = dreamRepository.findById(dreamId)
-                .orElseThrow(() -> new EntityNotFoundException("Dream not found"));
-        dream.removeReaction(userId);
-        return dreamRepository.save(dream);
+    /**
+     * Removes a user's reaction to a dream, if they have one, the same write-behind way.
+     */
+    public DreamResponseDto removeDreamReaction(Long dreamId, Long userId) {
+        DreamResponseDto dream = getDreamById(dreamId);
+        if (dream == null) {
+            throw new EntityNotFoundException("Dream not found");
+        }
+        reactionAggregator.submit(dreamId, userId, null);
+        dreamEvents.changed(dreamId);
+        return withReactionCounts(dream);
+    }
+
+    /**
+     * Subscribes to live reaction and comment counts of a dream (see DreamEventBroadcaster).
+     * @throws ResourceNotFoundException If the dream does not exist.
+     */
+    public SseEmitter subscribeToCounts(Long dreamId) {
+        if (!dreamRepository.existsByDreamIdAndDeletedAtIsNull(dreamId)) {
+            throw new ResourceNotFoundException("Dream not found with ID: " + dreamId);
+        }
+        return dreamEvents.subscribe(dreamId);
     }
 
     public Long getReactionCount(Long id) {
-        Dream dream = dreamRepository.findById(id).orElse(null);
-        Long likeCount = dream.getReactionCount("like");
-        Long cryCount = dream.getReactionCount("cry");
-        System.out.println(
-                "Dream '" + dream.getTitle() + "' has " + likeCount + " likes and " + cryCount + " cries.");
-        return likeCount;
+        DreamResponseDto dream = getDreamById(id);
+        return dream == null ? null : dream.getLikeCount().longValue();
     }
 
+    /**
+     * Marks a dream deleted and drops it from every listing and in-memory index right away.
+     * Its comments, body and row are removed in the background by PurgeWorker. Retried by
+     * OptimisticRetry if the dream is saved concurrently.
+     * @return false if the dream does not exist or is already deleted.
+     */
     public boolean deleteDream(Long id) {
-        Optional<Dream> dreamOptional = dreamRepository.findById(id);
-        if (dreamOptional.isPresent()) {
-            dreamRepository.deleteById(id);
-            return true;
-        } else {
-            return false;
-        }
+        return optimisticRetry.execute(status -> {
+            Optional<Dream> dreamOptional = dreamRepository.findByDreamIdAndDeletedAtIsNull(id);
+            if (dreamOptional.isPresent()) {
+                Dream dream = dreamOptional.get();
+                List<String> tagNames = dreamTagRepository.findTagNamesByDreamId(id);
+                boolean isPublic = !Dream.PRIVATE.equals(dream.getVisibility());
+                // Tag rows go now so tag queries and the startup tag index load skip the dream
+                dreamTagRepository.deleteByDreamId(id);
+                dream.setDeletedAt(LocalDateTime.now());
+                dreamRepository.save(dream);
+                // Not from an attempt OptimisticRetry rolls back, and not before readers see the delete
+                TransactionHooks.afterCommit(() -> {
+                    tagIndex.remove(id, tagNames);
+                    if (isPublic) {
+                        autocompleteService.tagsUsed(tagNames, -1);
+                    }
+                    dreamCache.evict(id);
+                    trendingEngine.untrack(id);
+                    searchIndex.remove(id);
+                });
+                return true;
+            } else {
+                return false;
+            }
+        });
     }
 }
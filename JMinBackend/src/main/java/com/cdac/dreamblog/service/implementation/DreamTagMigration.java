@@ -0,0 +1,65 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.dreamblog.model.Dream;
+import com.cdac.dreamblog.model.DreamTag;
+import com.cdac.dreamblog.model.Tag;
+import com.cdac.dreamblog.repository.DreamRepository;
+import com.cdac.dreamblog.repository.DreamTagRepository;
+
+/**
+ * Copies the comma-separated Dream.tags of dreams written before the tag dictionary
+ * into tag / dream_tag. One short transaction per batch; a no-op once every tagged
+ * dream has its rows.
+ */
+@Component
+public class DreamTagMigration {
+
+    private static final int BATCH_SIZE = 200;
+
+    @Autowired
+    private DreamRepository dreamRepository;
+
+    @Autowired
+    private DreamTagRepository dreamTagRepository;
+
+    @Autowired
+    private TagDictionary tagDictionary;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Order(5)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        long lastDreamId = 0L;
+        int migrated = 0;
+        while (true) {
+            final long after = lastDreamId;
+            List<Dream> dreams = dreamRepository.findUnindexedTaggedDreams(after, PageRequest.of(0, BATCH_SIZE));
+            if (dreams.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> dreams.forEach(this::copyTags));
+            migrated += dreams.size();
+            lastDreamId = dreams.get(dreams.size() - 1).getDreamId();
+        }
+        if (migrated > 0) {
+            System.out.println("Copied tags of " + migrated + " dreams into dream_tag");
+        }
+    }
+
+    private void copyTags(Dream dream) {
+        List<Long> tagIds = tagDictionary.resolveIds(Tag.parse(dream.getTags()));
+        tagIds.forEach(tagId -> dreamTagRepository.save(DreamTag.of(dream.getDreamId(), tagId)));
+    }
+}
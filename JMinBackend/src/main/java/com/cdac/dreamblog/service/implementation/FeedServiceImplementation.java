@@ -0,0 +1,73 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import com.cdac.dreamblog.dto.DreamWithCommentsDto;
+import com.cdac.dreamblog.dto.response.CursorPageResponseDto;
+import com.cdac.dreamblog.exception.BadRequestException;
+import com.cdac.dreamblog.exception.ResourceNotFoundException;
+import com.cdac.dreamblog.model.User;
+import com.cdac.dreamblog.repository.UserRepository;
+
+@Service
+public class FeedServiceImplementation {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private TimelineStore timelineStore;
+
+    @Autowired
+    private DreamServiceImplementation dreamService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Returns one page of the authenticated user's home timeline: their own dreams and
+     * the dreams of everyone they follow, newest first.
+     * @param before Cursor from a previous page, or null for the newest entries.
+     * @param limit Requested page size; clamped to [1, MAX_PAGE_SIZE].
+     * @return The page and the cursor for the next one (null when exhausted).
+     * @throws ResourceNotFoundException if the authenticated user does not exist.
+     * @throws BadRequestException if the cursor is malformed.
+     */
+    public CursorPageResponseDto<DreamWithCommentsDto> getFeedForCurrentUser(String before, Integer limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = userRepository.findByUsername(authentication.getName())
+                .orElseThrow(() -> new ResourceNotFoundException("user not found"));
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Long beforeDreamId = parseCursor(before);
+
+        List<Long> dreamIds = timelineStore.page(user.getUserId(), beforeDreamId, pageSize + 1);
+        boolean hasMore = dreamIds.size() > pageSize;
+        if (hasMore) {
+            dreamIds = dreamIds.subList(0, pageSize);
+        }
+
+        CursorPageResponseDto<DreamWithCommentsDto> page = new CursorPageResponseDto<>();
+        page.setItems(dreamService.getDreamsInOrder(dreamIds));
+        if (hasMore) {
+            page.setNextCursor(String.valueOf(dreamIds.get(dreamIds.size() - 1)));
+        }
+        return page;
+    }
+
+    private Long parseCursor(String before) {
+        if (before == null || before.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(before);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Runs read-modify-write changes to versioned rows (Dream, Comment) without holding row
+ * locks across the change.
+ *
+ * Each attempt is its own transaction. When another transaction saved a newer version of
+ * the row first, the attempt fails on its versioned UPDATE and is run again from the start,
+ * so it re-reads the current row and applies its change on top of it instead of writing
+ * over the other one. After max-attempts the OptimisticLockingFailureException is thrown
+ * to the caller (409 Conflict). Retries wait a random delay of up to backoff-ms times the
+ * attempt number, so writers that collided once do not collide again in step.
+ *
+ * Called inside a transaction that is already running, the work joins it and runs once;
+ * a conflict then fails the outer transaction, which is the one to retry.
+ */
+@Component
+public class OptimisticRetry {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${dreamblog.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${dreamblog.retry.backoff-ms:5}")
+    private long backoffMs;
+
+    private Counter retries;
+
+    private Counter conflicts;
+
+    @PostConstruct
+    void init() {
+        retries = Counter.builder("dreamblog.optimistic.retries")
+                .description("Writes run again after losing an optimistic lock")
+                .register(meterRegistry);
+        conflicts = Counter.builder("dreamblog.optimistic.conflicts")
+                .description("Writes that lost every attempt and were rejected")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param work The whole read-modify-write; must re-read what it changes, as it may run
+     *        more than once.
+     * @return What the successful attempt returned.
+     */
+    public <T> T execute(TransactionCallback<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transactionTemplate.execute(work);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(work);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    conflicts.increment();
+                    throw e;
+                }
+                retries.increment();
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        long delayMs = ThreadLocalRandom.current().nextLong(backoffMs * attempt + 1);
+        if (delayMs == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a write", e);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.dreamblog.model.Reaction;
+import com.cdac.dreamblog.repository.CommentRepository;
+import com.cdac.dreamblog.repository.DreamBodyRepository;
+import com.cdac.dreamblog.repository.DreamRepository;
+import com.cdac.dreamblog.repository.DreamTagRepository;
+import com.cdac.dreamblog.repository.FollowRepository;
+import com.cdac.dreamblog.repository.ReactionCountRepository;
+import com.cdac.dreamblog.repository.ReactionRepository;
+import com.cdac.dreamblog.repository.UserRepository;
+import com.cdac.dreamblog.repository.projection.CommentVisibilityView;
+import com.cdac.dreamblog.repository.projection.DreamReactionCount;
+
+/**
+ * Removes the rows of deleted dreams and users in the background.
+ *
+ * Deleting only marks the dream or user (deletedAt) and hides it, so the request returns
+ * at once. This worker then deletes comments, reactions, follows and dreams in batches of
+ * batch-size rows, one short transaction per batch, so purging a heavy account never holds
+ * many row locks at a time. A deleted user's dreams are first deleted the same way a single dream
+ * is, then purged with the other deleted dreams, and the user row goes last. Their reactions and
+ * comments on other dreams also come off those dreams' counters.
+ */
+@Component
+public class PurgeWorker {
+
+    @Autowired
+    private DreamRepository dreamRepository;
+
+    @Autowired
+    private DreamBodyRepository dreamBodyRepository;
+
+    @Autowired
+    private DreamTagRepository dreamTagRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private ReactionRepository reactionRepository;
+
+    @Autowired
+    private ReactionCountRepository reactionCountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DreamServiceImplementation dreamService;
+
+    @Autowired
+    private DreamCache dreamCache;
+
+    @Autowired
+    private TrendingEngine trendingEngine;
+
+    @Autowired
+    private DreamEventBroadcaster dreamEvents;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Most rows deleted by one transaction
+    @Value("${dreamblog.purge.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${dreamblog.purge.interval-ms:10000}",
+            initialDelayString = "${dreamblog.purge.interval-ms:10000}")
+    public void purge() {
+        List<Long> userIds = userRepository.findDeletedUserIds(PageRequest.of(0, batchSize));
+        userIds.forEach(this::deleteUserContent);
+        int dreams = purgeDreams();
+        int users = 0;
+        for (Long userId : userIds) {
+            users += purgeUser(userId) ? 1 : 0;
+        }
+        if (dreams > 0 || users > 0) {
+            System.out.println("Purged " + dreams + " deleted dreams and " + users + " deleted users");
+        }
+    }
+
+    // Deletes a user's dreams (as deleteDream does), follows, reactions and comments, batch by batch
+    private void deleteUserContent(Long userId) {
+        while (true) {
+            List<Long> dreamIds = dreamRepository.findActiveDreamIdsByUserId(userId, PageRequest.of(0, batchSize));
+            if (dreamIds.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> dreamIds.forEach(dreamService::deleteDream));
+        }
+        deleteInBatches(() -> followRepository.deleteBatchByUserId(userId, batchSize));
+        int reactions;
+        do {
+            reactions = deleteReactionBatch(userId);
+        } while (reactions > 0);
+        int comments;
+        do {
+            comments = deleteCommentBatch(userId);
+        } while (comments > 0);
+    }
+
+    // Deletes up to batchSize of a user's reactions and lowers the counters of the dreams they were on
+    // in the same transaction; the new totals are published once it commits
+    private int deleteReactionBatch(Long userId) {
+        List<Reaction> reactions = transactionTemplate.execute(status -> {
+            List<Reaction> batch = reactionRepository.findBatchByUserIdForUpdate(userId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return batch;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, Map<String, Long>> removed = batch.stream()
+                    .collect(Collectors.groupingBy(Reaction::getDreamId,
+                            Collectors.groupingBy(Reaction::getType, Collectors.counting())));
+            removed.forEach((dreamId, byType) -> byType.forEach((type, count) ->
+                    reactionCountRepository.add(dreamId, type, -count, now)));
+            reactionRepository.deleteByUserIdAndDreamIds(userId, removed.keySet());
+            return batch;
+        });
+        if (reactions == null || reactions.isEmpty()) {
+            return 0;
+        }
+        List<Long> dreamIds = reactions.stream().map(Reaction::getDreamId).collect(Collectors.toList());
+        dreamIds.forEach(dreamCache::evictReactionCounts);
+        for (DreamReactionCount total : reactionCountRepository.sumByDreamIds(dreamIds)) {
+            trendingEngine.reactionsChanged(total.getDreamId(), total.getReactionCount().intValue());
+        }
+        return reactions.size();
+    }
+
+    // Deletes up to batchSize of a user's comments; once that commits, the public ones come off the
+    // comment counts of their dreams, as deleteComment does for one
+    private int deleteCommentBatch(Long userId) {
+        List<CommentVisibilityView> comments = transactionTemplate.execute(status -> {
+            List<CommentVisibilityView> batch = commentRepository.findBatchByUserIdForUpdate(userId, batchSize);
+            if (!batch.isEmpty()) {
+                commentRepository.deleteAllByIdInBatch(batch.stream()
+                        .map(CommentVisibilityView::getCommentId).collect(Collectors.toList()));
+            }
+            return batch;
+        });
+        if (comments == null || comments.isEmpty()) {
+            return 0;
+        }
+        comments.stream()
+                .filter(comment -> "public".equals(comment.getVisibility()))
+                .collect(Collectors.groupingBy(CommentVisibilityView::getDreamId, Collectors.counting()))
+                .forEach((dreamId, count) -> {
+                    trendingEngine.commentsChanged(dreamId, -count.intValue());
+                    dreamEvents.changed(dreamId);
+                });
+        return comments.size();
+    }
+
+    // Removes every deleted dream with its comments, reactions, tags and body
+    private int purgeDreams() {
+        int purged = 0;
+        while (true) {
+            List<Long> dreamIds = dreamRepository.findDeletedDreamIds(PageRequest.of(0, batchSize));
+            if (dreamIds.isEmpty()) {
+                return purged;
+            }
+            for (Long dreamId : dreamIds) {
+                deleteInBatches(() -> commentRepository.deleteBatchByDreamId(dreamId, batchSize));
+                deleteInBatches(() -> reactionRepository.deleteBatchByDreamId(dreamId, batchSize));
+                transactionTemplate.executeWithoutResult(status -> {
+                    dreamTagRepository.deleteByDreamId(dreamId);
+                    reactionCountRepository.deleteByDreamId(dreamId);
+                    dreamBodyRepository.deleteAllByIdInBatch(List.of(dreamId));
+                    dreamRepository.deleteAllByIdInBatch(List.of(dreamId));
+                });
+                purged++;
+            }
+        }
+    }
+
+    // Deletes the user row once nothing refers to it; otherwise the next run tries again
+    private boolean purgeUser(Long userId) {
+        if (dreamRepository.existsByUserId(userId)) {
+            return false;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.deleteAllByIdInBatch(List.of(userId)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            System.out.println("User " + userId + " still referenced, purge retried later: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void deleteInBatches(IntSupplier batch) {
+        int deleted;
+        do {
+            Integer rows = transactionTemplate.execute(status -> batch.getAsInt());
+            deleted = rows == null ? 0 : rows;
+        } while (deleted > 0);
+    }
+}
@@ -0,0 +1,377 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.dreamblog.enums.ReactionType;
+import com.cdac.dreamblog.model.DreamReaction;
+import com.cdac.dreamblog.model.Reaction;
+import com.cdac.dreamblog.model.ReactionCount;
+import com.cdac.dreamblog.repository.DreamRepository;
+import com.cdac.dreamblog.repository.ReactionCountRepository;
+import com.cdac.dreamblog.repository.ReactionRepository;
+import com.cdac.dreamblog.repository.projection.DreamReactionCount;
+import com.cdac.dreamblog.util.PackedReactions;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind buffer for reactions, so a burst of reactions to one dream costs a few
+ * transactions instead of one each.
+ *
+ * Reactions are accepted into memory and coalesced per (dream, user): only a user's last
+ * reaction in an interval is written. Every flush-ms the pending dreams are written in
+ * transactions of about batch-size reactions, with the reaction rows of a dream locked by
+ * one query, written by one JDBC batch, and each of its counters moved once by the net
+ * change instead of once per reaction.
+ *
+ * Pending reactions are held in PackedReactions (at most 35 bytes per user, against about
+ * 150 for a map of DreamReaction objects), so a dream collecting tens of thousands of
+ * reactions between flushes stays small on the heap.
+ *
+ * Reads see pending reactions through pendingReactions (a user's own) and pendingCounts
+ * (counter changes, worked out against the user's previous reaction when it is accepted).
+ * The flush recomputes the changes under row locks, so the stored counters stay exact even
+ * where the pending estimate was not. A failed batch is put back and retried on the next
+ * flush, and a final flush runs on shutdown.
+ */
+@Component
+public class ReactionAggregator {
+
+    private static final String UPSERT_SQL = "INSERT INTO dream_reaction "
+            + "(dream_id, user_id, reaction_type, reacted_at) VALUES (?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE reaction_type = VALUES(reaction_type), reacted_at = VALUES(reacted_at)";
+
+    private static final String DELETE_SQL = "DELETE FROM dream_reaction WHERE dream_id = ? AND user_id = ?";
+
+    @Autowired
+    private DreamRepository dreamRepository;
+
+    @Autowired
+    private ReactionRepository reactionRepository;
+
+    @Autowired
+    private ReactionCountRepository reactionCountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DreamCache dreamCache;
+
+    @Autowired
+    private TrendingEngine trendingEngine;
+
+    // Reactions written by one transaction, rounded up to whole dreams
+    @Value("${dreamblog.reactions.batch-size:500}")
+    private int batchSize;
+
+    // Dreams with reactions accepted since the last flush
+    private final ConcurrentMap<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    // Dreams taken by the running flush, until their transaction commits
+    private final ConcurrentMap<Long, Pending> flushing = new ConcurrentHashMap<>();
+
+    /**
+     * Accepts a reaction, replacing any earlier one by the same user still pending.
+     * @param type The reaction type, or null to remove the user's reaction.
+     */
+    public void submit(Long dreamId, Long userId, ReactionType type) {
+        long reactedAt = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+        Pending loadedFor = null;
+        String previous = null;
+        while (true) {
+            Pending dream = pending.computeIfAbsent(dreamId, id -> new Pending());
+            boolean drained;
+            synchronized (dream) {
+                drained = dream.drained;
+                if (!drained && dream.latest.contains(userId)) {
+                    dream.accept(userId, type, reactedAt, code(dream.latest.type(userId)));
+                    return;
+                }
+                if (!drained && loadedFor == dream) {
+                    dream.accept(userId, type, reactedAt, previous);
+                    return;
+                }
+            }
+            // Look the previous reaction up outside the lock, then check nothing was queued meanwhile
+            if (!drained) {
+                previous = storedType(dreamId, userId);
+                loadedFor = dream;
+            }
+        }
+    }
+
+    /**
+     * @return Pending reactions of one user by dream ID, for the dreams that have one. A
+     *         reaction with a null type means the user's reaction is being removed.
+     */
+    public Map<Long, DreamReaction> pendingReactions(Long userId, Collection<Long> dreamIds) {
+        Map<Long, DreamReaction> found = new HashMap<>();
+        for (Long dreamId : dreamIds) {
+            DreamReaction reaction = latest(pending.get(dreamId), userId);
+            if (reaction == null) {
+                reaction = latest(flushing.get(dreamId), userId);
+            }
+            if (reaction != null) {
+                found.put(dreamId, reaction);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return Changes to a dream's counters not written to the database yet, by reaction type.
+     */
+    public Map<String, Long> pendingCounts(Long dreamId) {
+        Map<String, Long> deltas = new HashMap<>();
+        for (Pending dream : new Pending[] { flushing.get(dreamId), pending.get(dreamId) }) {
+            if (dream != null) {
+                synchronized (dream) {
+                    dream.deltas.forEach((type, delta) -> deltas.merge(type, delta, Long::sum));
+                }
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * @return A dream's reaction counters as readers see them: the stored ones, cached in
+     *         DreamCache, plus the changes still pending. Types with no reactions are left out.
+     */
+    public Map<String, Long> currentCounts(Long dreamId) {
+        Map<String, Long> stored = dreamCache.getReactionCounts(dreamId,
+                id -> reactionCountRepository.findByDreamId(id).stream()
+                        .collect(Collectors.toMap(ReactionCount::getType, ReactionCount::getCount)));
+        return withPending(dreamId, stored);
+    }
+
+    /**
+     * @return Stored counters of a dream plus the changes still pending, without the types
+     *         that end up with no reactions.
+     */
+    public Map<String, Long> withPending(Long dreamId, Map<String, Long> stored) {
+        Map<String, Long> counts = new HashMap<>(stored);
+        pendingCounts(dreamId).forEach((type, delta) -> counts.merge(type, delta, Long::sum));
+        counts.values().removeIf(count -> count <= 0);
+        return counts;
+    }
+
+    /**
+     * @return The number of reactions to a dream accepted and not written yet, or 0. Goes up
+     *         with every reaction, so it can tell apart versions that differ only in pending state.
+     */
+    public long pendingVersion(Long dreamId) {
+        long version = 0;
+        for (Pending dream : new Pending[] { flushing.get(dreamId), pending.get(dreamId) }) {
+            if (dream != null) {
+                synchronized (dream) {
+                    version += dream.version;
+                }
+            }
+        }
+        return version;
+    }
+
+    /**
+     * Writes every pending reaction to the database.
+     * @return The number of reactions written, after coalescing.
+     */
+    @Scheduled(fixedDelayString = "${dreamblog.reactions.flush-ms:200}",
+            initialDelayString = "${dreamblog.reactions.flush-ms:200}")
+    public synchronized int flush() {
+        int written = 0;
+        List<Long> batch = new ArrayList<>();
+        int batchReactions = 0;
+        for (Long dreamId : pending.keySet()) {
+            // Visible in flushing before it is closed, so submit() finds the user's reaction there
+            Pending dream = pending.get(dreamId);
+            flushing.put(dreamId, dream);
+            pending.remove(dreamId);
+            synchronized (dream) {
+                dream.drained = true;
+                batchReactions += dream.latest.size();
+            }
+            batch.add(dreamId);
+            if (batchReactions >= batchSize) {
+                written += write(batch);
+                batch = new ArrayList<>();
+                batchReactions = 0;
+            }
+        }
+        if (!batch.isEmpty()) {
+            written += write(batch);
+        }
+        return written;
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        int flushed = flush();
+        System.out.println("Flushed " + flushed + " pending reactions on shutdown");
+    }
+
+    // Writes a batch of drained dreams in one transaction
+    private int write(List<Long> dreamIds) {
+        List<DreamReactionCount> totals;
+        try {
+            totals = transactionTemplate.execute(status -> {
+                dreamIds.forEach(dreamId -> apply(dreamId, flushing.get(dreamId)));
+                return reactionCountRepository.sumByDreamIds(dreamIds);
+            });
+        } catch (RuntimeException e) {
+            System.out.println("Reaction flush failed, keeping " + dreamIds.size() + " dreams pending: "
+                    + e.getMessage());
+            dreamIds.forEach(this::requeue);
+            return 0;
+        }
+        int written = 0;
+        for (Long dreamId : dreamIds) {
+            written += flushing.remove(dreamId).latest.size();
+            dreamCache.evictReactionCounts(dreamId);
+        }
+        if (totals != null) {
+            totals.forEach(total -> trendingEngine.reactionsChanged(total.getDreamId(),
+                    total.getReactionCount().intValue()));
+        }
+        return written;
+    }
+
+    // Writes one dream's reactions and moves each of its counters once, by the net change
+    private void apply(Long dreamId, Pending dream) {
+        if (!dreamRepository.existsByDreamIdAndDeletedAtIsNull(dreamId)) {
+            return;
+        }
+        // Locked in user ID order, like every other flush
+        List<Long> userIds = Arrays.stream(dream.latest.sortedUserIds()).boxed().collect(Collectors.toList());
+        Map<Long, String> stored = reactionRepository.findForUpdate(dreamId, userIds).stream()
+                .collect(Collectors.toMap(Reaction::getUserId, Reaction::getType));
+
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        Map<String, Long> deltas = new HashMap<>();
+        for (Long userId : userIds) {
+            String type = code(dream.latest.type(userId));
+            String previous = stored.get(userId);
+            if (Objects.equals(previous, type)) {
+                continue;
+            }
+            if (previous != null) {
+                deltas.merge(previous, -1L, Long::sum);
+            }
+            if (type == null) {
+                deletes.add(new Object[] { dreamId, userId });
+            } else {
+                upserts.add(new Object[] { dreamId, userId, type,
+                        Timestamp.valueOf(toDateTime(dream.latest.reactedAt(userId))) });
+                deltas.merge(type, 1L, Long::sum);
+            }
+        }
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((type, delta) -> {
+            if (delta != 0) {
+                reactionCountRepository.add(dreamId, type, delta, now);
+            }
+        });
+    }
+
+    // Puts a dream whose write failed back in front of the reactions accepted since
+    private void requeue(Long dreamId) {
+        Pending failed = flushing.get(dreamId);
+        while (true) {
+            Pending dream = pending.computeIfAbsent(dreamId, id -> new Pending());
+            synchronized (dream) {
+                if (!dream.drained) {
+                    failed.latest.forEach((userId, type, reactedAt) -> {
+                        if (!dream.latest.contains(userId)) {
+                            dream.latest.put(userId, type, reactedAt);
+                        }
+                    });
+                    failed.deltas.forEach((type, delta) -> dream.deltas.merge(type, delta, Long::sum));
+                    dream.version += failed.version;
+                    break;
+                }
+            }
+        }
+        flushing.remove(dreamId);
+    }
+
+    // The type a user's reaction will have once the flush in progress, if any, has committed
+    private String storedType(Long dreamId, Long userId) {
+        DreamReaction inFlight = latest(flushing.get(dreamId), userId);
+        if (inFlight != null) {
+            return inFlight.getType();
+        }
+        return reactionRepository.findType(dreamId, userId).orElse(null);
+    }
+
+    private static DreamReaction latest(Pending dream, Long userId) {
+        if (dream == null) {
+            return null;
+        }
+        synchronized (dream) {
+            if (!dream.latest.contains(userId)) {
+                return null;
+            }
+            return new DreamReaction(userId, code(dream.latest.type(userId)),
+                    toDateTime(dream.latest.reactedAt(userId)));
+        }
+    }
+
+    // The stored code of a packed type ID; null for a removal
+    private static String code(byte typeId) {
+        ReactionType type = ReactionType.fromId(typeId);
+        return type == null ? null : type.getCode();
+    }
+
+    private static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    // Reactions to one dream accepted since the last flush; guarded by its own monitor
+    private static final class Pending {
+        final PackedReactions latest = new PackedReactions();
+        final Map<String, Long> deltas = new HashMap<>();
+        long version;
+        // Set once a flush has taken it; later reactions go to a new instance
+        boolean drained;
+
+        void accept(long userId, ReactionType type, long reactedAt, String previous) {
+            if (previous != null) {
+                deltas.merge(previous, -1L, Long::sum);
+            }
+            if (type != null) {
+                deltas.merge(type.getCode(), 1L, Long::sum);
+            }
+            latest.put(userId, type == null ? PackedReactions.REMOVED : type.getId(), reactedAt);
+            version++;
+        }
+    }
+}
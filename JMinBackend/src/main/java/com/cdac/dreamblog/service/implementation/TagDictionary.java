@@ -0,0 +1,72 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.dreamblog.model.Tag;
+import com.cdac.dreamblog.repository.TagRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Maps normalized tag names to tag IDs, adding new names to the dictionary as needed.
+ */
+@Component
+public class TagDictionary {
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // New names are inserted in their own transaction, so losing an insert race to another
+    // writer does not roll back the caller's transaction
+    private TransactionTemplate insertTransaction;
+
+    @PostConstruct
+    void init() {
+        insertTransaction = new TransactionTemplate(transactionManager);
+        insertTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @param names Normalized tag names, see {@link Tag#parse(String)}.
+     * @return The tag IDs, in the same order as the names.
+     */
+    public List<Long> resolveIds(List<String> names) {
+        if (names.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, Long> ids = new HashMap<>();
+        tagRepository.findByNameIn(names).forEach(tag -> ids.put(tag.getName(), tag.getTagId()));
+        for (String name : names) {
+            if (!ids.containsKey(name)) {
+                ids.put(name, insertOrFind(name));
+            }
+        }
+        List<Long> ordered = new ArrayList<>(names.size());
+        for (String name : names) {
+            ordered.add(ids.get(name));
+        }
+        return ordered;
+    }
+
+    private Long insertOrFind(String name) {
+        try {
+            return insertTransaction.execute(status -> tagRepository.saveAndFlush(Tag.named(name)).getTagId());
+        } catch (DataIntegrityViolationException e) {
+            // Someone else added it first
+            return tagRepository.findByNameIn(List.of(name)).get(0).getTagId();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.dreamblog.dto.response.TagCountDto;
+import com.cdac.dreamblog.repository.DreamRepository;
+import com.cdac.dreamblog.repository.DreamTagRepository;
+import com.cdac.dreamblog.util.TransactionHooks;
+
+/**
+ * In-memory posting lists for tags: one compressed bitmap of dream IDs per tag, plus a
+ * bitmap of private dreams that every query subtracts. Tag lookups, AND/OR/NOT combinations
+ * and counts are bitmap operations and never touch the dream table.
+ *
+ * Built from dream_tag at startup and kept current by the dream service after each write
+ * commits. Dream IDs must fit in an int.
+ */
+@Component
+public class TagIndex {
+
+    @Autowired
+    private DreamTagRepository dreamTagRepository;
+
+    @Autowired
+    private DreamRepository dreamRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // RoaringBitmap is not thread-safe: reads share the lock, writes take it exclusively
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, RoaringBitmap> postings = new HashMap<>();
+
+    private final RoaringBitmap privateDreams = new RoaringBitmap();
+
+    /**
+     * Loads every posting list. Runs after DreamTagMigration has filled dream_tag.
+     */
+    @Order(6)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            privateDreams.clear();
+            transactionTemplate.execute(status -> {
+                try (Stream<Object[]> rows = dreamTagRepository.streamTagNamesAndDreamIds()) {
+                    rows.forEach(row -> postings.computeIfAbsent((String) row[0], tag -> new RoaringBitmap())
+                            .add(toInt((Long) row[1])));
+                }
+                return null;
+            });
+            dreamRepository.findPrivateDreamIds().forEach(dreamId -> privateDreams.add(toInt(dreamId)));
+            postings.values().forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("Tag index loaded " + postings.size() + " tags");
+    }
+
+    /**
+     * Adds a dream to the posting list of each of its tags once the current transaction commits.
+     */
+    public void add(Long dreamId, Collection<String> tags, boolean isPrivate) {
+        int id = toInt(dreamId);
+        List<String> names = new ArrayList<>(tags);
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (String tag : names) {
+                    postings.computeIfAbsent(tag, t -> new RoaringBitmap()).add(id);
+                }
+                if (isPrivate) {
+                    privateDreams.add(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes a dream from the given tags once the current transaction commits.
+     */
+    public void remove(Long dreamId, Collection<String> tags) {
+        int id = toInt(dreamId);
+        List<String> names = new ArrayList<>(tags);
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (String tag : names) {
+                    RoaringBitmap posting = postings.get(tag);
+                    if (posting != null) {
+                        posting.remove(id);
+                        if (posting.isEmpty()) {
+                            postings.remove(tag);
+                        }
+                    }
+                }
+                privateDreams.remove(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Public dreams carrying every tag in all, at least one tag in any (if given) and no tag in none.
+     * @return A new bitmap owned by the caller.
+     */
+    public RoaringBitmap match(Collection<String> all, Collection<String> any, Collection<String> none) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = null;
+            for (String tag : all) {
+                RoaringBitmap posting = postings.get(tag);
+                if (posting == null) {
+                    return new RoaringBitmap();
+                }
+                result = result == null ? posting.clone() : RoaringBitmap.and(result, posting);
+            }
+            if (!any.isEmpty()) {
+                RoaringBitmap union = FastAggregation.or(any.stream()
+                        .map(postings::get)
+                        .filter(posting -> posting != null)
+                        .iterator());
+                result = result == null ? union : RoaringBitmap.and(result, union);
+            }
+            if (result == null) {
+                return new RoaringBitmap();
+            }
+            for (String tag : none) {
+                RoaringBitmap posting = postings.get(tag);
+                if (posting != null) {
+                    result.andNot(posting);
+                }
+            }
+            result.andNot(privateDreams);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Up to limit dream IDs from the bitmap that are below before (if given), highest first.
+     */
+    public static List<Long> newestFirst(RoaringBitmap dreams, Long before, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        if (dreams.isEmpty() || (before != null && before <= 0)) {
+            return ids;
+        }
+        long next = before == null ? dreams.last() : dreams.previousValue(toInt(Math.min(before - 1, Integer.MAX_VALUE)));
+        while (next >= 0 && ids.size() < limit) {
+            ids.add(next);
+            next = next == 0 ? -1 : dreams.previousValue((int) next - 1);
+        }
+        return ids;
+    }
+
+    /**
+     * @return The limit tags with the most public dreams, most used first. Tags used only on
+     *         private dreams are left out, so their names are never shown to other users.
+     */
+    public List<TagCountDto> topTags(int limit) {
+        List<TagCountDto> counts = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            postings.forEach((tag, posting) -> {
+                long publicDreams = RoaringBitmap.andNotCardinality(posting, privateDreams);
+                if (publicDreams == 0) {
+                    return;
+                }
+                TagCountDto count = new TagCountDto();
+                count.setTag(tag);
+                count.setCount(publicDreams);
+                counts.add(count);
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        counts.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+        return counts.subList(0, Math.min(limit, counts.size()));
+    }
+
+    private static int toInt(long dreamId) {
+        return Math.toIntExact(dreamId);
+    }
+}
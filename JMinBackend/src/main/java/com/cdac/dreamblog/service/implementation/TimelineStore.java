@@ -0,0 +1,251 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.cdac.dreamblog.model.Dream;
+import com.cdac.dreamblog.repository.DreamRepository;
+import com.cdac.dreamblog.repository.FollowRepository;
+import com.cdac.dreamblog.util.KWayMerger;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory home timelines, one bounded list of dream IDs per user, newest first.
+ * New dreams are pushed to the author's followers when they are written (fan-out on write),
+ * so reading a timeline page touches only the entries on that page.
+ *
+ * Timelines are materialized lazily: the first read for a user rebuilds it from the
+ * follow graph, and pushes to users without a materialized timeline are skipped because
+ * that rebuild will pick the dream up anyway.
+ *
+ * Authors with more than pullThreshold followers are not fanned out, since one dream would
+ * mean that many writes. Their followers pull those dreams at read time instead and the
+ * pulled streams are k-way merged with the pushed timeline.
+ *
+ * Only the newest timelineSize pushed entries are kept; pages older than that read the
+ * pushed authors' dreams from the database. At most maxTimelines users keep a timeline,
+ * and one that is not read for idleMinutes is dropped; either is rebuilt on the next read.
+ */
+@Component
+public class TimelineStore {
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private DreamRepository dreamRepository;
+
+    // Maximum number of dream IDs kept per user timeline
+    @Value("${dreamblog.feed.timeline-size:500}")
+    private int timelineSize;
+
+    // Authors with more followers than this are pulled at read time instead of pushed
+    @Value("${dreamblog.feed.pull-threshold:10000}")
+    private long pullThreshold;
+
+    // Materialized timelines are rebuilt after this long, so authors that crossed the
+    // pull threshold since the last build are picked up
+    @Value("${dreamblog.feed.timeline-ttl-minutes:30}")
+    private long timelineTtlMinutes;
+
+    // Each timeline holds timelineSize longs, so this bounds the heap the store can take
+    @Value("${dreamblog.feed.max-timelines:100000}")
+    private long maxTimelines;
+
+    @Value("${dreamblog.feed.timeline-idle-minutes:60}")
+    private long timelineIdleMinutes;
+
+    private Cache<Long, Timeline> timelines;
+
+    @PostConstruct
+    void init() {
+        timelines = Caffeine.newBuilder()
+                .maximumSize(maxTimelines)
+                .expireAfterAccess(Duration.ofMinutes(timelineIdleMinutes))
+                .build();
+    }
+
+    /**
+     * Pushes a newly created dream onto the author's timeline and, unless it is private
+     * or the author is above the pull threshold, onto the timeline of every follower.
+     * @param dream The saved dream.
+     */
+    public void fanOut(Dream dream) {
+        Long authorId = dream.getUser().getUserId();
+        push(authorId, dream.getDreamId());
+        if ("private".equals(dream.getVisibility())) {
+            return;
+        }
+        if (followRepository.countFollowersByUserId(authorId) > pullThreshold) {
+            return; // followers pull this author's dreams at read time
+        }
+        for (Long followerId : followRepository.findFollowerIdsByFollowedId(authorId)) {
+            push(followerId, dream.getDreamId());
+        }
+    }
+
+    /**
+     * Returns up to limit dream IDs from the user's timeline, newest first.
+     * @param userId The timeline owner.
+     * @param beforeDreamId Only return IDs strictly lower than this, or null for the head.
+     * @param limit Maximum number of IDs to return.
+     */
+    public List<Long> page(Long userId, Long beforeDreamId, int limit) {
+        Timeline timeline = timelines.get(userId, this::rebuild);
+        if (timeline.isOlderThan(timelineTtlMinutes * 60_000L)) {
+            timeline = rebuild(userId);
+            timelines.put(userId, timeline);
+        }
+        long bound = beforeDreamId == null ? Long.MAX_VALUE : beforeDreamId;
+
+        List<Long> pushed = timeline.page(bound, limit);
+        if (pushed.size() < limit && timeline.isFull()) {
+            // Older entries may have been dropped from the ring; continue below its oldest one
+            long olderThan = pushed.isEmpty() ? Math.min(bound, timeline.oldest()) : pushed.get(pushed.size() - 1);
+            pushed = new ArrayList<>(pushed);
+            pushed.addAll(dreamRepository.findTimelineDreamIdsBefore(timeline.pushedAuthorIds, userId, olderThan,
+                    PageRequest.of(0, limit - pushed.size())));
+        }
+        if (timeline.pulledAuthorIds.isEmpty()) {
+            return pushed;
+        }
+        List<List<Long>> streams = new ArrayList<>(timeline.pulledAuthorIds.size() + 1);
+        streams.add(pushed);
+        for (Long authorId : timeline.pulledAuthorIds) {
+            streams.add(dreamRepository.findPublicDreamIdsByAuthorBefore(authorId, bound,
+                    PageRequest.of(0, limit)));
+        }
+        return KWayMerger.mergeDescending(streams, limit);
+    }
+
+    /**
+     * Drops a user's materialized timeline so the next read rebuilds it, e.g. after
+     * they follow or unfollow someone.
+     */
+    public void evict(Long userId) {
+        timelines.invalidate(userId);
+    }
+
+    private void push(Long userId, Long dreamId) {
+        // Quietly, so pushes alone do not keep the timeline of a user who stopped reading
+        Timeline timeline = timelines.policy().getIfPresentQuietly(userId);
+        if (timeline != null) {
+            timeline.push(dreamId);
+        }
+    }
+
+    private Timeline rebuild(Long userId) {
+        List<Long> followedIds = followRepository.findFollowedIdsByFollowerId(userId);
+        List<Long> pulledAuthorIds = followedIds.isEmpty()
+                ? List.of()
+                : followRepository.findUserIdsWithMoreFollowersThan(followedIds, pullThreshold);
+
+        List<Long> authorIds = new ArrayList<>(followedIds);
+        authorIds.removeAll(pulledAuthorIds);
+        authorIds.add(userId);
+        List<Long> dreamIds = dreamRepository.findTimelineDreamIds(authorIds, userId,
+                PageRequest.of(0, timelineSize));
+        Timeline timeline = new Timeline(timelineSize, authorIds, pulledAuthorIds);
+        // Query returns newest first; push oldest first so the newest ends up at the head
+        for (int i = dreamIds.size() - 1; i >= 0; i--) {
+            timeline.push(dreamIds.get(i));
+        }
+        return timeline;
+    }
+
+    /**
+     * Fixed-capacity ring of dream IDs kept in descending order. When full,
+     * the oldest entry is overwritten.
+     */
+    static final class Timeline {
+        private final long[] ids;
+        private int head; // physical index of the newest entry
+        private int size;
+        private final List<Long> pushedAuthorIds;
+        private final List<Long> pulledAuthorIds;
+        private final long builtAtMillis = System.currentTimeMillis();
+
+        Timeline(int capacity, List<Long> pushedAuthorIds, List<Long> pulledAuthorIds) {
+            this.ids = new long[capacity];
+            this.pushedAuthorIds = pushedAuthorIds;
+            this.pulledAuthorIds = pulledAuthorIds;
+        }
+
+        // A full ring may have dropped older entries; one that never filled holds them all
+        synchronized boolean isFull() {
+            return size == ids.length;
+        }
+
+        synchronized long oldest() {
+            return get(size - 1);
+        }
+
+        boolean isOlderThan(long ageMillis) {
+            return System.currentTimeMillis() - builtAtMillis > ageMillis;
+        }
+
+        synchronized void push(long dreamId) {
+            // Concurrent writers can arrive slightly out of order; find the sorted slot
+            int position = 0;
+            while (position < size && get(position) > dreamId) {
+                position++;
+            }
+            if (position < size && get(position) == dreamId) {
+                return;
+            }
+            if (position == ids.length) {
+                return; // older than everything in a full timeline
+            }
+            head = (head - 1 + ids.length) % ids.length;
+            if (size < ids.length) {
+                size++;
+            }
+            for (int i = 0; i < position; i++) {
+                set(i, get(i + 1));
+            }
+            set(position, dreamId);
+        }
+
+        synchronized List<Long> page(long beforeDreamId, int limit) {
+            int start = firstBelow(beforeDreamId);
+            int end = Math.min(size, start + limit);
+            List<Long> result = new ArrayList<>(Math.max(0, end - start));
+            for (int i = start; i < end; i++) {
+                result.add(get(i));
+            }
+            return result;
+        }
+
+        // Binary search for the first logical index whose id is < bound
+        private int firstBelow(long bound) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (get(mid) >= bound) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private long get(int logicalIndex) {
+            return ids[(head + logicalIndex) % ids.length];
+        }
+
+        private void set(int logicalIndex, long value) {
+            ids[(head + logicalIndex) % ids.length] = value;
+        }
+    }
+}
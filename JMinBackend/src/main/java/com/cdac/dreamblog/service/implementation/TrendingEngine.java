@@ -0,0 +1,220 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.cdac.dreamblog.model.Dream;
+import com.cdac.dreamblog.repository.CommentRepository;
+import com.cdac.dreamblog.repository.DreamRepository;
+import com.cdac.dreamblog.repository.ReactionCountRepository;
+import com.cdac.dreamblog.repository.projection.DreamCommentCount;
+import com.cdac.dreamblog.repository.projection.DreamReactionCount;
+
+/**
+ * Keeps the reaction and comment counts of recent public dreams in memory and ranks
+ * them with a Hacker-News-style gravity formula:
+ *
+ *   score = (reactions + commentWeight * comments) / (ageHours + 2) ^ gravity
+ *
+ * Counts are updated in place by the dream and comment services when reactions or
+ * comments change, so ranking never counts reactions or comments in MySQL.
+ * A scheduled refresh rescores the tracked dreams, drops the ones that have aged out of
+ * the window and publishes the top K IDs as an immutable list that reads return as-is.
+ */
+@Component
+public class TrendingEngine {
+
+    private static final int BOOTSTRAP_BATCH_SIZE = 200;
+
+    @Autowired
+    private DreamRepository dreamRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ReactionCountRepository reactionCountRepository;
+
+    // Only dreams younger than this are tracked and ranked
+    @Value("${dreamblog.trending.window-hours:72}")
+    private long windowHours;
+
+    @Value("${dreamblog.trending.gravity:1.8}")
+    private double gravity;
+
+    // A comment counts as this many reactions
+    @Value("${dreamblog.trending.comment-weight:2}")
+    private double commentWeight;
+
+    // Number of dream IDs kept in the published ranking
+    @Value("${dreamblog.trending.top-k:100}")
+    private int topK;
+
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile List<Long> topIds = Collections.emptyList();
+
+    /**
+     * Loads counts for the public dreams inside the window, then publishes the first ranking.
+     * Runs after the body migrations.
+     */
+    @Order(3)
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        LocalDateTime since = LocalDateTime.now().minusHours(windowHours);
+        long lastDreamId = 0L;
+        while (true) {
+            List<Dream> dreams = dreamRepository.findPublicCreatedSince(since, lastDreamId,
+                    PageRequest.of(0, BOOTSTRAP_BATCH_SIZE));
+            if (dreams.isEmpty()) {
+                break;
+            }
+            List<Long> dreamIds = dreams.stream().map(Dream::getDreamId).collect(Collectors.toList());
+            Map<Long, Long> commentCounts = commentRepository.countPublicByDreamIds(dreamIds).stream()
+                    .collect(Collectors.toMap(DreamCommentCount::getDreamId, DreamCommentCount::getCommentCount));
+            Map<Long, Long> reactionCounts = reactionCountRepository.sumByDreamIds(dreamIds).stream()
+                    .collect(Collectors.toMap(DreamReactionCount::getDreamId, DreamReactionCount::getReactionCount));
+            for (Dream dream : dreams) {
+                Entry entry = new Entry(toMillis(dream.getCreatedAt()));
+                entry.reactions = reactionCounts.getOrDefault(dream.getDreamId(), 0L).intValue();
+                entry.comments.set(commentCounts.getOrDefault(dream.getDreamId(), 0L).intValue());
+                entries.putIfAbsent(dream.getDreamId(), entry);
+            }
+            lastDreamId = dreams.get(dreams.size() - 1).getDreamId();
+        }
+        refresh();
+        System.out.println("Trending engine tracking " + entries.size() + " dreams");
+    }
+
+    /**
+     * Starts tracking a newly created dream, which has no reactions yet. Private dreams are ignored.
+     */
+    public void track(Dream dream) {
+        if (isPrivate(dream)) {
+            return;
+        }
+        entries.putIfAbsent(dream.getDreamId(), new Entry(toMillis(dream.getCreatedAt())));
+    }
+
+    /**
+     * Records the current total reaction count of a dream. Untracked dreams are ignored.
+     */
+    public void reactionsChanged(Long dreamId, int totalReactions) {
+        Entry entry = entries.get(dreamId);
+        if (entry != null) {
+            entry.reactions = totalReactions;
+        }
+    }
+
+    /**
+     * Adds delta (+1 or -1 per comment) to the comment count of a dream. Untracked dreams are ignored.
+     */
+    public void commentsChanged(Long dreamId, int delta) {
+        Entry entry = entries.get(dreamId);
+        if (entry != null) {
+            entry.comments.addAndGet(delta);
+        }
+    }
+
+    /**
+     * Stops tracking a dream and drops it from the published ranking right away.
+     */
+    public void untrack(Long dreamId) {
+        entries.remove(dreamId);
+        List<Long> current = topIds;
+        if (current.contains(dreamId)) {
+            List<Long> pruned = new ArrayList<>(current);
+            pruned.remove(dreamId);
+            topIds = Collections.unmodifiableList(pruned);
+        }
+    }
+
+    /**
+     * @return The current ranking, best first. The same list instance is returned until the
+     *         ranking changes, so callers may cache anything derived from it by identity.
+     */
+    public List<Long> topIds() {
+        return topIds;
+    }
+
+    /**
+     * Rescores every tracked dream and publishes the top K.
+     */
+    @Scheduled(fixedDelayString = "${dreamblog.trending.refresh-ms:30000}",
+            initialDelayString = "${dreamblog.trending.refresh-ms:30000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        long oldest = now - windowHours * 3_600_000L;
+        // Min-heap on score holding the best K seen so far
+        PriorityQueue<Scored> best = new PriorityQueue<>(topK + 1, (a, b) -> Double.compare(a.score, b.score));
+        for (Map.Entry<Long, Entry> tracked : entries.entrySet()) {
+            Entry entry = tracked.getValue();
+            if (entry.createdAtMillis < oldest) {
+                entries.remove(tracked.getKey(), entry);
+                continue;
+            }
+            double score = score(entry, now);
+            if (best.size() < topK) {
+                best.add(new Scored(tracked.getKey(), score));
+            } else if (score > best.peek().score) {
+                best.poll();
+                best.add(new Scored(tracked.getKey(), score));
+            }
+        }
+        List<Scored> ranked = new ArrayList<>(best);
+        ranked.sort((a, b) -> Double.compare(b.score, a.score));
+        topIds = Collections.unmodifiableList(ranked.stream().map(s -> s.dreamId).collect(Collectors.toList()));
+    }
+
+    private double score(Entry entry, long now) {
+        double ageHours = Math.max(0L, now - entry.createdAtMillis) / 3_600_000.0;
+        double points = entry.reactions + commentWeight * entry.comments.get();
+        return points / Math.pow(ageHours + 2, gravity);
+    }
+
+    private static boolean isPrivate(Dream dream) {
+        return Dream.PRIVATE.equals(dream.getVisibility());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? System.currentTimeMillis() : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Entry {
+        final long createdAtMillis;
+        volatile int reactions;
+        final AtomicInteger comments = new AtomicInteger();
+
+        Entry(long createdAtMillis) {
+            this.createdAtMillis = createdAtMillis;
+        }
+    }
+
+    private static final class Scored {
+        final Long dreamId;
+        final double score;
+
+        Scored(Long dreamId, double score) {
+            this.dreamId = dreamId;
+            this.score = score;
+        }
+    }
+}
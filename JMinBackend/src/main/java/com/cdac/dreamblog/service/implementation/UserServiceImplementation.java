@@ -23,6 +23,7 @@ import com.cdac.dreamblog.exception.ResourceNotFoundException;
 import com.cdac.dreamblog.model.User;
 import com.cdac.dreamblog.repository.UserRepository;
 import com.cdac.dreamblog.service.IUserService;
+import com.cdac.dreamblog.util.ETags;
 import com.cdac.dreamblog.util.JwtUtil;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -42,6 +43,9 @@ public class UserServiceImplementation implements IUserService {
     @Autowired
     JwtUtil jwtUtil;
 
+    @Autowired
+    AutocompleteService autocompleteService;
+
     public UserResponseDto toUserResponseDto(User user) {
         System.out.println(user);
         UserResponseDto userDto = new UserResponseDto();
@@ -104,6 +108,7 @@ public class UserServiceImplementation implements IUserService {
             user.setRole("ROLE_ADMIN");
         }
         User savedUser = userRepository.save(user);
+        autocompleteService.userAdded(savedUser.getUsername());
         return toUserResponseDto(savedUser);
     }
 
@@ -188,6 +193,7 @@ public class UserServiceImplementation implements IUserService {
         // if (userDto.getIsEmailVerified() != null)
         // existingUser.setIsEmailVerified(userDto.getIsEmailVerified());
 
+        existingUser.setUpdatedAt(LocalDateTime.now());
         User updatedUser = userRepository.save(existingUser);
         UserResponseDto userResponseDto = toUserResponseDto(updatedUser);
 
@@ -197,13 +203,17 @@ public class UserServiceImplementation implements IUserService {
     @Transactional // Ensures the delete operation is performed within a transaction
     public void deleteUser(Long id) {
         // 1. Check if the user exists before attempting to delete
-        if (!userRepository.existsById(id)) {
-            // If the user doesn't exist, throw an EntityNotFoundException
-            // The controller will then catch this and return a 404 Not Found response
-            throw new EntityNotFoundException("User not found with ID: " + id);
-        }
-        // 2. If the user exists, proceed with the deletion
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .filter(found -> found.getDeletedAt() == null)
+                // If the user doesn't exist, throw an EntityNotFoundException
+                // The controller will then catch this and return a 404 Not Found response
+                .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + id));
+        // 2. Mark the account deleted and return; PurgeWorker removes its dreams, comments
+        //    and follows in small batches and then the user row itself
+        user.setIsActive(false);
+        user.setDeletedAt(LocalDateTime.now());
+        userRepository.save(user);
+        autocompleteService.userRemoved(user.getUsername());
     }
 
     public UserResponseDto getCurrentUser() {
@@ -217,8 +227,16 @@ public class UserServiceImplementation implements IUserService {
         return toUserResponseDto(user);
     }
 
+    /**
+     * @return The ETag of a user's profile from its last change time, or null if the user does not exist.
+     */
+    public String getUserETag(String username) {
+        return ETags.of("user", username, userRepository.findVersionStampByUsername(username));
+    }
+
     public UserResponseDto getUserByUsername(String username) {
         User user = userRepository.findByUsername(username)
+                .filter(found -> found.getDeletedAt() == null)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
         System.out.println("user data" + user);
         return toUserResponseDto(user);
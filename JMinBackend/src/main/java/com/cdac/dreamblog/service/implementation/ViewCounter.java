@@ -0,0 +1,104 @@
+package com.cdac.dreamblog.service.implementation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Counts dream views in memory and adds them to dream.view_count in one batched
+ * statement per flush, so a popular dream does not turn every read into a row lock.
+ *
+ * Each dream gets a LongAdder, which spreads concurrent increments over striped cells.
+ * A flush subtracts what it wrote only after the batch succeeds, so a failed flush is
+ * retried with the same counts and a read never sees a view missing from both the row
+ * and the pending count. Adders left idle for a whole interval are dropped from the map
+ * and drained once more on the next flush, which picks up increments that raced with
+ * the removal. Runs a final flush on shutdown.
+ */
+@Component
+public class ViewCounter {
+
+    private static final String FLUSH_SQL = "UPDATE dream SET view_count = view_count + ? WHERE dream_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // Adders removed by the previous flush; only touched by flush()
+    private final List<Map.Entry<Long, LongAdder>> retired = new ArrayList<>();
+
+    public void record(Long dreamId) {
+        pending.computeIfAbsent(dreamId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * @return Views of a dream recorded but not written to the database yet.
+     */
+    public long pending(Long dreamId) {
+        LongAdder adder = pending.get(dreamId);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    /**
+     * Adds the pending views of every dream to the database.
+     * @return The number of dreams updated.
+     */
+    @Scheduled(fixedDelayString = "${dreamblog.views.flush-ms:5000}",
+            initialDelayString = "${dreamblog.views.flush-ms:5000}")
+    public synchronized int flush() {
+        for (Map.Entry<Long, LongAdder> late : retired) {
+            long views = late.getValue().sumThenReset();
+            if (views > 0) {
+                pending.computeIfAbsent(late.getKey(), id -> new LongAdder()).add(views);
+            }
+        }
+        retired.clear();
+
+        List<LongAdder> adders = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long views = entry.getValue().sum();
+            if (views == 0) {
+                if (pending.remove(entry.getKey(), entry.getValue())) {
+                    retired.add(Map.entry(entry.getKey(), entry.getValue()));
+                }
+                continue;
+            }
+            adders.add(entry.getValue());
+            batch.add(new Object[] { views, entry.getKey() });
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (DataAccessException e) {
+            System.out.println("View count flush failed, keeping " + batch.size() + " dreams pending: "
+                    + e.getMessage());
+            return 0;
+        }
+        for (int i = 0; i < adders.size(); i++) {
+            adders.get(i).add(-(Long) batch.get(i)[0]);
+        }
+        return batch.size();
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        int flushed = flush();
+        System.out.println("Flushed view counts of " + flushed + " dreams on shutdown");
+    }
+}
@@ -0,0 +1,57 @@
+package com.cdac.dreamblog.service.implementation;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.dreamblog.repository.CommentRepository;
+import com.cdac.dreamblog.repository.DreamRepository;
+
+/**
+ * Sets visibility to 'public' on dreams and comments stored with no or an unknown
+ * visibility, which the listings used to treat as public. Once every row holds
+ * 'public' or 'private', listing queries filter with visibility = 'public' and are
+ * answered from the (visibility, created_at) indexes.
+ *
+ * Runs first at startup, one short transaction per batch.
+ */
+@Component
+public class VisibilityMigration {
+
+    private static final int BATCH_SIZE = 200;
+
+    @Autowired
+    private DreamRepository dreamRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        int dreams = 0;
+        int updated;
+        do {
+            Integer batch = transactionTemplate.execute(status -> dreamRepository.normalizeVisibilityBatch(BATCH_SIZE));
+            updated = batch == null ? 0 : batch;
+            dreams += updated;
+        } while (updated > 0);
+
+        int comments = 0;
+        do {
+            Integer batch = transactionTemplate.execute(status -> commentRepository.normalizeVisibilityBatch(BATCH_SIZE));
+            updated = batch == null ? 0 : batch;
+            comments += updated;
+        } while (updated > 0);
+
+        if (dreams > 0 || comments > 0) {
+            System.out.println("Set visibility on " + dreams + " dreams and " + comments + " comments");
+        }
+    }
+}
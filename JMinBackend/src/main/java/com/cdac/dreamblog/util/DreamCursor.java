@@ -0,0 +1,56 @@
+package com.cdac.dreamblog.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.cdac.dreamblog.exception.BadRequestException;
+
+/**
+ * Opaque keyset cursor over (createdAt, dreamId).
+ * Clients receive it as a URL-safe Base64 string and pass it back unchanged.
+ */
+public final class DreamCursor {
+
+    private final LocalDateTime createdAt;
+    private final Long dreamId;
+
+    public DreamCursor(LocalDateTime createdAt, Long dreamId) {
+        this.createdAt = createdAt;
+        this.dreamId = dreamId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getDreamId() {
+        return dreamId;
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + dreamId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     * @param cursor The opaque cursor string.
+     * @return The decoded cursor.
+     * @throws BadRequestException if the cursor is malformed.
+     */
+    public static DreamCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new DreamCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.cdac.dreamblog.util;
+
+import java.time.ZoneOffset;
+
+import com.cdac.dreamblog.repository.projection.VersionStamp;
+
+/**
+ * Builds strong ETags from a resource key and its {@link VersionStamp}.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * @param kind Resource type, so tags of different endpoints never collide.
+     * @param key Resource identifier.
+     * @param stamp Version stamp from a repository query.
+     * @return The quoted ETag, or null when the resource does not exist.
+     */
+    public static String of(String kind, Object key, VersionStamp stamp) {
+        if (stamp == null || stamp.getRowCount() == null || stamp.getRowCount() == 0) {
+            return null;
+        }
+        long changedAt = stamp.getChangedAt() == null
+                ? 0L
+                : stamp.getChangedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+        return "\"" + kind + "-" + key + "-" + changedAt + "-" + stamp.getRowCount() + "\"";
+    }
+}
@@ -0,0 +1,45 @@
+package com.cdac.dreamblog.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merges several ID lists, each sorted in descending order, into one descending list.
+ * Uses a heap over the stream heads, so merging k streams into n results costs O(n log k).
+ */
+public final class KWayMerger {
+
+    private KWayMerger() {
+    }
+
+    /**
+     * @param streams Lists sorted in descending order.
+     * @param limit Maximum number of IDs to return.
+     * @return The first limit IDs across all streams, descending, without duplicates.
+     */
+    public static List<Long> mergeDescending(List<List<Long>> streams, int limit) {
+        // Each heap entry is {streamIndex, positionInStream}; largest head first
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, streams.size()),
+                (a, b) -> Long.compare(streams.get(b[0]).get(b[1]), streams.get(a[0]).get(a[1])));
+        for (int i = 0; i < streams.size(); i++) {
+            if (!streams.get(i).isEmpty()) {
+                heads.add(new int[] { i, 0 });
+            }
+        }
+
+        List<Long> merged = new ArrayList<>(limit);
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<Long> stream = streams.get(head[0]);
+            Long id = stream.get(head[1]);
+            if (merged.isEmpty() || !merged.get(merged.size() - 1).equals(id)) {
+                merged.add(id);
+            }
+            if (head[1] + 1 < stream.size()) {
+                heads.add(new int[] { head[0], head[1] + 1 });
+            }
+        }
+        return merged;
+    }
+}
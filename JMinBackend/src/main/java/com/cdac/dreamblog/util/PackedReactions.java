@@ -0,0 +1,195 @@
+package com.cdac.dreamblog.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reactions of many users to one dream, one per user, packed into parallel primitive arrays:
+ * a long user ID, a byte type ID and an int epoch-second timestamp. That is 13 bytes per
+ * slot, against roughly 150 bytes for a HashMap entry holding a DreamReaction with its
+ * boxed user ID, type string and LocalDateTime.
+ *
+ * Keyed by user ID with open addressing (linear probing, at most 3/4 full); putting a
+ * user's reaction replaces the one they had. Timestamps are unsigned epoch seconds, which
+ * last until 2106; anything finer than a second is dropped.
+ *
+ * toBytes() writes the same 13 bytes per user with no free slots, for a binary column or
+ * a cache; fromBytes() reads it back.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public class PackedReactions {
+
+    // Bytes per user in toBytes()
+    public static final int ENTRY_BYTES = Long.BYTES + Byte.BYTES + Integer.BYTES;
+
+    // Type ID meaning "the user's reaction is removed"
+    public static final byte REMOVED = 0;
+
+    // Returned by type() for users without a reaction here
+    public static final byte ABSENT = -1;
+
+    // Marks a free slot; user IDs are positive
+    private static final long FREE = 0L;
+
+    private long[] userIds;
+    private byte[] types;
+    private int[] reactedAt;
+    private int size;
+
+    public PackedReactions() {
+        this(8);
+    }
+
+    /**
+     * @param expected Number of users to make room for before the arrays grow.
+     */
+    public PackedReactions(int expected) {
+        allocate(Math.max(8, Integer.highestOneBit(Math.max(1, expected * 4 / 3)) << 1));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(long userId) {
+        return userIds[slot(userId)] != FREE;
+    }
+
+    /**
+     * @return The user's type ID, REMOVED, or ABSENT if the user has no reaction here.
+     */
+    public byte type(long userId) {
+        int slot = slot(userId);
+        return userIds[slot] == FREE ? ABSENT : types[slot];
+    }
+
+    /**
+     * @return The epoch second of the user's reaction, or -1 if they have none here.
+     */
+    public long reactedAt(long userId) {
+        int slot = slot(userId);
+        return userIds[slot] == FREE ? -1L : Integer.toUnsignedLong(reactedAt[slot]);
+    }
+
+    /**
+     * Sets a user's reaction, replacing the one they had.
+     */
+    public void put(long userId, byte type, long epochSecond) {
+        if (userId <= 0) {
+            throw new IllegalArgumentException("User IDs must be positive: " + userId);
+        }
+        int slot = slot(userId);
+        if (userIds[slot] == FREE) {
+            if ((size + 1) * 4 > userIds.length * 3) {
+                grow();
+                slot = slot(userId);
+            }
+            userIds[slot] = userId;
+            size++;
+        }
+        types[slot] = type;
+        reactedAt[slot] = (int) epochSecond;
+    }
+
+    /**
+     * Calls the consumer once per user, in no particular order.
+     */
+    public void forEach(ReactionConsumer consumer) {
+        for (int slot = 0; slot < userIds.length; slot++) {
+            if (userIds[slot] != FREE) {
+                consumer.accept(userIds[slot], types[slot], Integer.toUnsignedLong(reactedAt[slot]));
+            }
+        }
+    }
+
+    /**
+     * @return The user IDs held, in ascending order.
+     */
+    public long[] sortedUserIds() {
+        long[] sorted = new long[size];
+        int next = 0;
+        for (long userId : userIds) {
+            if (userId != FREE) {
+                sorted[next++] = userId;
+            }
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * @return Bytes taken by the arrays, free slots included.
+     */
+    public long sizeInBytes() {
+        return (long) userIds.length * ENTRY_BYTES;
+    }
+
+    /**
+     * @return Every user's reaction as user ID, type ID and epoch second, big-endian.
+     */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(size * ENTRY_BYTES);
+        for (int slot = 0; slot < userIds.length; slot++) {
+            if (userIds[slot] != FREE) {
+                buffer.putLong(userIds[slot]).put(types[slot]).putInt(reactedAt[slot]);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @throws IllegalArgumentException If bytes is not a whole number of entries.
+     */
+    public static PackedReactions fromBytes(byte[] bytes) {
+        if (bytes.length % ENTRY_BYTES != 0) {
+            throw new IllegalArgumentException("Packed reactions must be a multiple of " + ENTRY_BYTES
+                    + " bytes, got " + bytes.length);
+        }
+        PackedReactions reactions = new PackedReactions(bytes.length / ENTRY_BYTES);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            long userId = buffer.getLong();
+            byte type = buffer.get();
+            reactions.put(userId, type, Integer.toUnsignedLong(buffer.getInt()));
+        }
+        return reactions;
+    }
+
+    // Slot holding userId, or the free slot where it would go
+    private int slot(long userId) {
+        int mask = userIds.length - 1;
+        // Fibonacci hashing spreads sequential IDs over the table
+        int slot = (int) ((userId * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        while (userIds[slot] != FREE && userIds[slot] != userId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldUserIds = userIds;
+        byte[] oldTypes = types;
+        int[] oldReactedAt = reactedAt;
+        allocate(oldUserIds.length * 2);
+        for (int i = 0; i < oldUserIds.length; i++) {
+            if (oldUserIds[i] != FREE) {
+                int slot = slot(oldUserIds[i]);
+                userIds[slot] = oldUserIds[i];
+                types[slot] = oldTypes[i];
+                reactedAt[slot] = oldReactedAt[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        userIds = new long[capacity];
+        types = new byte[capacity];
+        reactedAt = new int[capacity];
+    }
+
+    @FunctionalInterface
+    public interface ReactionConsumer {
+        void accept(long userId, byte type, long epochSecond);
+    }
+}
@@ -0,0 +1,239 @@
+package com.cdac.dreamblog.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Prefix trie for type-ahead. Every node caches the topK highest-scored terms below it,
+ * so a lookup costs one walk down the prefix and no subtree scan.
+ *
+ * Terms are matched case-insensitively and suggested in their original spelling. Raising a
+ * score or adding a term keeps the cached lists exact; removing a term refills the lists it
+ * was in. Lowering a score only reorders the lists that already hold the term, so a term
+ * that has just overtaken it elsewhere in the subtree may be missing until the trie is rebuilt.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public class PrefixTrie {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final int topK;
+    private final Node root = new Node();
+    private final Map<String, Term> terms = new HashMap<>();
+
+    // Best first: higher score, then alphabetical
+    private final Comparator<String> ranking = (a, b) -> {
+        int byScore = Long.compare(terms.get(b).score, terms.get(a).score);
+        return byScore != 0 ? byScore : a.compareTo(b);
+    };
+
+    public PrefixTrie(int topK) {
+        this.topK = topK;
+    }
+
+    public int size() {
+        return terms.size();
+    }
+
+    /**
+     * Adds a term or replaces its score.
+     */
+    public void put(String term, long score) {
+        String key = key(term);
+        if (key.isEmpty()) {
+            return;
+        }
+        Term existing = terms.get(key);
+        if (existing == null) {
+            terms.put(key, new Term(term, score));
+            insertIntoPath(key);
+        } else {
+            long previous = existing.score;
+            existing.score = score;
+            if (score >= previous) {
+                insertIntoPath(key);
+            } else {
+                reorderPath(key);
+            }
+        }
+    }
+
+    /**
+     * Adds delta to a term's score, adding the term with score delta if it is new.
+     */
+    public void add(String term, long delta) {
+        Term existing = terms.get(key(term));
+        put(existing == null ? term : existing.display, existing == null ? delta : existing.score + delta);
+    }
+
+    public void remove(String term) {
+        String key = key(term);
+        if (terms.remove(key) == null) {
+            return;
+        }
+        Node node = root;
+        List<Node> path = new ArrayList<>();
+        path.add(node);
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+            if (node != null) {
+                path.add(node);
+            }
+        }
+        if (node != null) {
+            node.terminal = false;
+        }
+        // path.get(depth) is the node for the first depth characters of key
+        for (int depth = 0; depth < path.size(); depth++) {
+            Node onPath = path.get(depth);
+            if (onPath.top.remove(key)) {
+                refill(onPath, key.substring(0, depth));
+            }
+        }
+    }
+
+    /**
+     * @return Up to limit terms starting with prefix, best first, in their original spelling.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        Node node = root;
+        String key = key(prefix);
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        List<String> suggestions = new ArrayList<>();
+        if (node == null) {
+            return suggestions;
+        }
+        for (String match : node.top) {
+            if (suggestions.size() >= limit) {
+                break;
+            }
+            suggestions.add(terms.get(match).display);
+        }
+        return suggestions;
+    }
+
+    private void insertIntoPath(String key) {
+        Node node = root;
+        offer(node, key);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+            offer(node, key);
+        }
+        node.terminal = true;
+    }
+
+    private void reorderPath(String key) {
+        Node node = root;
+        for (int i = 0; node != null; i++) {
+            if (node.top.contains(key)) {
+                node.top.sort(ranking);
+            }
+            node = i < key.length() ? node.child(key.charAt(i)) : null;
+        }
+    }
+
+    // Puts key into the node's list if it ranks among the best topK
+    private void offer(Node node, String key) {
+        List<String> top = node.top;
+        top.remove(key);
+        int position = 0;
+        while (position < top.size() && ranking.compare(top.get(position), key) < 0) {
+            position++;
+        }
+        if (position < topK) {
+            top.add(position, key);
+            if (top.size() > topK) {
+                top.remove(top.size() - 1);
+            }
+        }
+    }
+
+    // Recomputes a node's list from its whole subtree; prefix is the node's path from the root
+    private void refill(Node node, String prefix) {
+        PriorityQueue<String> worstFirst = new PriorityQueue<>(topK + 1, ranking.reversed());
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(node);
+        Deque<StringBuilder> paths = new ArrayDeque<>();
+        paths.push(new StringBuilder(prefix));
+        while (!pending.isEmpty()) {
+            Node current = pending.pop();
+            StringBuilder path = paths.pop();
+            if (current.terminal) {
+                worstFirst.add(path.toString());
+                if (worstFirst.size() > topK) {
+                    worstFirst.poll();
+                }
+            }
+            for (int i = 0; i < current.labels.length; i++) {
+                pending.push(current.children[i]);
+                paths.push(new StringBuilder(path).append(current.labels[i]));
+            }
+        }
+        List<String> top = new ArrayList<>(worstFirst);
+        top.sort(ranking);
+        node.top = top;
+    }
+
+    private static String key(String term) {
+        return term == null ? "" : term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Term {
+        final String display;
+        long score;
+
+        Term(String display, long score) {
+            this.display = display;
+            this.score = score;
+        }
+    }
+
+    // Children are kept in two parallel arrays sorted by label to stay small
+    private static final class Node {
+        char[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        List<String> top = new ArrayList<>(0);
+        boolean terminal;
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node child = new Node();
+            labels = insert(labels, insertAt, label);
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, insertAt);
+            grown[insertAt] = child;
+            System.arraycopy(children, insertAt, grown, insertAt + 1, children.length - insertAt);
+            children = grown;
+            return child;
+        }
+
+        private static char[] insert(char[] array, int at, char value) {
+            char[] grown = new char[array.length + 1];
+            System.arraycopy(array, 0, grown, 0, at);
+            grown[at] = value;
+            System.arraycopy(array, at, grown, at + 1, array.length - at);
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.cdac.dreamblog.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects of a write until its transaction has committed.
+ */
+public final class TransactionHooks {
+
+    // Set while an action registered here runs, when the transaction has already committed
+    private static final ThreadLocal<Boolean> COMMITTED = ThreadLocal.withInitial(() -> false);
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * Runs the action after the current transaction commits, or right away when there is none.
+     * Nothing runs if the transaction rolls back. Called from an action that is itself running
+     * after commit, it runs right away too, as Spring never calls synchronizations registered
+     * that late.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || COMMITTED.get()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                boolean outer = COMMITTED.get();
+                COMMITTED.set(true);
+                try {
+                    action.run();
+                } finally {
+                    COMMITTED.set(outer);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,128 @@
+package com.cdac.dreamblog.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Round-trip checks for CompressedTextConverter plus a small benchmark that reports
+ * the bytes saved on a corpus of journal-like bodies and the extra read-path cost of
+ * decoding them compared with reading raw text.
+ */
+class CompressedTextConverterBenchmarkTest {
+
+    private static final String[] WORDS = { "I", "was", "walking", "through", "a", "forest", "and", "the",
+            "trees", "were", "made", "of", "glass", "my", "mother", "called", "from", "far", "away", "then",
+            "water", "rose", "until", "house", "floated", "over", "city", "felt", "calm", "strange", "dream" };
+
+    private final CompressedTextConverter converter = new CompressedTextConverter();
+
+    @Test
+    void roundTripsAllStoredForms() {
+        String shortText = "Flew over the ocean.";
+        String longText = journal(new Random(1), 5_000);
+        String markerText = CompressedTextConverter.MARKER + "z looks like a compressed value";
+
+        assertEquals(shortText, converter.convertToDatabaseColumn(shortText));
+        assertTrue(CompressedTextConverter.isCompressed(converter.convertToDatabaseColumn(longText)));
+
+        for (String text : new String[] { shortText, longText, markerText, "" }) {
+            assertEquals(text, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(text)));
+        }
+        // Rows written before compression are returned unchanged
+        assertEquals(longText, converter.convertToEntityAttribute(longText));
+        assertEquals(null, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(null)));
+    }
+
+    @Test
+    void measuresTheThresholdInUtf8Bytes() {
+        // 400 characters but 1,200 bytes
+        String multiByte = "\u5922".repeat(400);
+        assertTrue(multiByte.length() < CompressedTextConverter.THRESHOLD);
+
+        String stored = converter.convertToDatabaseColumn(multiByte);
+        assertTrue(CompressedTextConverter.isCompressed(stored));
+        assertEquals(multiByte, converter.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    void marksLongTextThatDoesNotCompress() {
+        Random random = new Random(3);
+        StringBuilder noise = new StringBuilder();
+        for (int i = 0; i < 4_000; i++) {
+            noise.append((char) ('!' + random.nextInt(94)));
+        }
+        String text = noise.toString();
+
+        String stored = converter.convertToDatabaseColumn(text);
+        assertEquals(CompressedTextConverter.MARKER + "r" + text, stored);
+        assertEquals(text, converter.convertToEntityAttribute(stored));
+        // Converting the stored value again leaves it as it is, so the migration skips it
+        assertEquals(stored, converter.convertToDatabaseColumn(converter.convertToEntityAttribute(stored)));
+    }
+
+    @Tag("benchmark")
+    @Test
+    void reportStorageSavedAndReadCost() {
+        Random random = new Random(42);
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            bodies.add(journal(random, 500 + random.nextInt(20_000)));
+        }
+
+        long rawBytes = 0;
+        long storedBytes = 0;
+        List<String> stored = new ArrayList<>();
+        for (String body : bodies) {
+            String column = converter.convertToDatabaseColumn(body);
+            stored.add(column);
+            rawBytes += body.getBytes(StandardCharsets.UTF_8).length;
+            storedBytes += column.getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        // Warm up, then time decoding every body against a plain pass over the raw text
+        long checksum = 0;
+        for (int round = 0; round < 5; round++) {
+            for (String column : stored) {
+                checksum += converter.convertToEntityAttribute(column).length();
+            }
+        }
+        int rounds = 20;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (String column : stored) {
+                checksum += converter.convertToEntityAttribute(column).length();
+            }
+        }
+        long decodeNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (String body : bodies) {
+                checksum += body.getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        long rawNanos = System.nanoTime() - start;
+
+        int reads = rounds * stored.size();
+        System.out.printf("stored %d of %d bytes (%.1f%% saved); read %.1fus/body compressed vs %.1fus raw (checksum %d)%n",
+                storedBytes, rawBytes, 100.0 * (rawBytes - storedBytes) / rawBytes,
+                decodeNanos / 1_000.0 / reads, rawNanos / 1_000.0 / reads, checksum);
+        assertTrue(storedBytes < rawBytes);
+    }
+
+    private static String journal(Random random, int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+            text.append(random.nextInt(12) == 0 ? ". " : " ");
+        }
+        return text.toString();
+    }
+}
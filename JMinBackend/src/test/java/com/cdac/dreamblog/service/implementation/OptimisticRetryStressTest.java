@@ -0,0 +1,161 @@
+package com.cdac.dreamblog.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.dreamblog.model.Dream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Has many threads increment one versioned row through OptimisticRetry, with a short pause
+ * between reading and writing, and checks that every write reported as done is in the final
+ * value. The same load as blind read-modify-write shows the updates lost without a version,
+ * and under a lock held across the change shows the serialized baseline. The row is an
+ * in-memory fake whose write fails like Hibernate's UPDATE ... WHERE version = ?, so the
+ * numbers measure retry behaviour rather than MySQL. Runs with -Dgroups=benchmark;
+ * OptimisticRetryTest covers retries and conflicts in the default suite.
+ */
+@Tag("benchmark")
+class OptimisticRetryStressTest {
+
+    private static final int THREADS = 16;
+    private static final int WRITES_PER_THREAD = 200;
+    private static final long WORK_NANOS = 100_000; // between reading the row and writing it
+
+    @Test
+    void noUpdateIsLostOnAHotRow() throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OptimisticRetry retry = newRetry(meterRegistry);
+
+        HotRow versioned = new HotRow();
+        Outcome optimistic = hammer("optimistic", () -> retry.execute(status -> {
+            long[] read = versioned.read();
+            LockSupport.parkNanos(WORK_NANOS);
+            versioned.write(read[0] + 1, read[1]);
+            return null;
+        }));
+        long retries = (long) meterRegistry.counter("dreamblog.optimistic.retries").count();
+        System.out.printf("%-11s retries=%d (%.2f per write)%n", "", retries,
+                (double) retries / (THREADS * WRITES_PER_THREAD));
+
+        HotRow blind = new HotRow();
+        Outcome unversioned = hammer("unversioned", () -> {
+            long[] read = blind.read();
+            LockSupport.parkNanos(WORK_NANOS);
+            blind.overwrite(read[0] + 1);
+        });
+        System.out.printf("%-11s lost updates=%d%n", "", unversioned.succeeded - blind.value());
+
+        HotRow locked = new HotRow();
+        Outcome pessimistic = hammer("row lock", () -> {
+            synchronized (locked) {
+                long[] read = locked.read();
+                LockSupport.parkNanos(WORK_NANOS);
+                locked.overwrite(read[0] + 1);
+            }
+        });
+
+        // Every write is either in the row or was rejected with a conflict, never silently dropped
+        assertEquals(optimistic.succeeded, versioned.value());
+        assertEquals(THREADS * WRITES_PER_THREAD, optimistic.succeeded + optimistic.rejected);
+        assertEquals(pessimistic.succeeded, locked.value());
+        assertTrue(blind.value() <= unversioned.succeeded);
+    }
+
+    private static Outcome hammer(String name, Runnable write) throws InterruptedException {
+        LongAdder succeeded = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        List<Thread> writers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < THREADS; i++) {
+            Thread writer = new Thread(() -> {
+                for (int n = 0; n < WRITES_PER_THREAD; n++) {
+                    try {
+                        write.run();
+                        succeeded.increment();
+                    } catch (OptimisticLockingFailureException e) {
+                        rejected.increment();
+                    }
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        Outcome outcome = new Outcome();
+        outcome.succeeded = succeeded.sum();
+        outcome.rejected = rejected.sum();
+        System.out.printf("%-11s %6d writes/s, %5d written, %4d rejected in %dms%n", name,
+                outcome.succeeded * 1_000_000_000L / elapsedNanos, outcome.succeeded, outcome.rejected,
+                elapsedNanos / 1_000_000);
+        return outcome;
+    }
+
+    private static OptimisticRetry newRetry(SimpleMeterRegistry meterRegistry) {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        OptimisticRetry retry = new OptimisticRetry();
+        ReflectionTestUtils.setField(retry, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(retry, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(retry, "maxAttempts", 5);
+        ReflectionTestUtils.setField(retry, "backoffMs", 5L);
+        ReflectionTestUtils.invokeMethod(retry, "init");
+        return retry;
+    }
+
+    private static final class Outcome {
+        private long succeeded;
+        private long rejected;
+    }
+
+    // One row with a value and a version column
+    private static final class HotRow {
+        private long value;
+        private long version;
+
+        synchronized long[] read() {
+            return new long[] { value, version };
+        }
+
+        // UPDATE ... SET value = ?, version = version + 1 WHERE id = ? AND version = ?
+        synchronized void write(long newValue, long readVersion) {
+            if (version != readVersion) {
+                throw new ObjectOptimisticLockingFailureException(Dream.class, 1L);
+            }
+            value = newValue;
+            version++;
+        }
+
+        synchronized void overwrite(long newValue) {
+            value = newValue;
+            version++;
+        }
+
+        synchronized long value() {
+            return value;
+        }
+    }
+}
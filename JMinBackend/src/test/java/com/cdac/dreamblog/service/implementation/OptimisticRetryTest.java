@@ -0,0 +1,108 @@
+package com.cdac.dreamblog.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.dreamblog.exception.GlobalExceptionHandler;
+import com.cdac.dreamblog.model.Dream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Single-threaded: each attempt fails or succeeds as scripted, and there is no backoff delay
+class OptimisticRetryTest {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OptimisticRetry retry = newRetry(meterRegistry);
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @AfterEach
+    void leaveTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void runsAgainUntilAnAttemptWins() {
+        String result = retry.execute(status -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw conflict();
+            }
+            return "saved";
+        });
+
+        assertEquals("saved", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2.0, meterRegistry.counter("dreamblog.optimistic.retries").count());
+        assertEquals(0.0, meterRegistry.counter("dreamblog.optimistic.conflicts").count());
+    }
+
+    @Test
+    void givesUpAfterMaxAttemptsWithA409() {
+        OptimisticLockingFailureException e = assertThrows(OptimisticLockingFailureException.class,
+                () -> retry.execute(status -> {
+                    attempts.incrementAndGet();
+                    throw conflict();
+                }));
+
+        assertEquals(MAX_ATTEMPTS, attempts.get());
+        assertEquals(MAX_ATTEMPTS - 1.0, meterRegistry.counter("dreamblog.optimistic.retries").count());
+        assertEquals(1.0, meterRegistry.counter("dreamblog.optimistic.conflicts").count());
+        assertEquals(HttpStatus.CONFLICT,
+                new GlobalExceptionHandler().handleOptimisticLockingFailure(e).getStatusCode());
+    }
+
+    @Test
+    void runsOnceInsideAnOuterTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> retry.execute(status -> {
+            attempts.incrementAndGet();
+            throw conflict();
+        }));
+        assertEquals(1, attempts.get());
+        assertEquals(0.0, meterRegistry.counter("dreamblog.optimistic.retries").count());
+    }
+
+    @Test
+    void passesOtherFailuresThrough() {
+        assertThrows(IllegalStateException.class, () -> retry.execute(status -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("not a conflict");
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+    private static OptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(Dream.class, 1L);
+    }
+
+    private static OptimisticRetry newRetry(SimpleMeterRegistry meterRegistry) {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        OptimisticRetry retry = new OptimisticRetry();
+        ReflectionTestUtils.setField(retry, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(retry, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(retry, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(retry, "backoffMs", 0L);
+        ReflectionTestUtils.invokeMethod(retry, "init");
+        return retry;
+    }
+}
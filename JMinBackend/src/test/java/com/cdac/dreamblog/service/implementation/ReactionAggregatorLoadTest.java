@@ -0,0 +1,353 @@
+package com.cdac.dreamblog.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.dreamblog.enums.ReactionType;
+import com.cdac.dreamblog.model.Reaction;
+import com.cdac.dreamblog.repository.DreamRepository;
+import com.cdac.dreamblog.repository.ReactionCountRepository;
+import com.cdac.dreamblog.repository.ReactionRepository;
+
+/**
+ * Compares one transaction per reaction (what PUT /api/dreams/{id}/reaction did before
+ * ReactionAggregator) with the write-behind aggregator, for a burst of reactions to one
+ * dream from many clients. The database is an in-memory fake that charges a fixed cost per
+ * statement and per commit and holds row locks until commit, so the numbers show round
+ * trips, transactions and lock waits rather than MySQL's absolute speed.
+ *
+ * The comparison is a benchmark and only runs with -Dgroups=benchmark; a small run of the same
+ * scripts checks the final state of both paths in the default suite.
+ */
+class ReactionAggregatorLoadTest {
+
+    private static final long DREAM_ID = 1L;
+    private static final int CLIENTS = 16;
+    private static final int USERS_PER_CLIENT = 50;
+    private static final int REACTIONS_PER_CLIENT = 400;
+    private static final ReactionType[] TYPES = {
+            ReactionType.LIKE, ReactionType.LIKE, ReactionType.DISLIKE, ReactionType.CRY, null }; // null removes
+    private static final long STATEMENT_NANOS = 50_000;
+    private static final long COMMIT_NANOS = 200_000;
+    private static final long FLUSH_MS = 20;
+
+    @Test
+    void bothPathsEndWithEveryUsersLastReaction() throws InterruptedException {
+        List<List<Object[]>> scripts = scripts(4, 100);
+        Result perRequest = runDirect(scripts);
+        Result writeBehind = runWriteBehind(scripts);
+
+        assertFinalState(scripts, perRequest.db);
+        assertFinalState(scripts, writeBehind.db);
+        assertTrue(writeBehind.transactions < perRequest.transactions);
+    }
+
+    @Tag("benchmark")
+    @Test
+    void compareThroughputAndLockContention() throws InterruptedException {
+        List<List<Object[]>> scripts = scripts(CLIENTS, REACTIONS_PER_CLIENT);
+        Result perRequest = runDirect(scripts);
+        Result writeBehind = runWriteBehind(scripts);
+        report("per-request", perRequest, scripts);
+        report("write-behind", writeBehind, scripts);
+
+        assertFinalState(scripts, perRequest.db);
+        assertFinalState(scripts, writeBehind.db);
+        assertTrue(writeBehind.transactions < perRequest.transactions);
+        assertTrue(writeBehind.lockWaits <= perRequest.lockWaits);
+    }
+
+    // Both must end with the last reaction of every user and matching counters
+    private static void assertFinalState(List<List<Object[]>> scripts, FakeDatabase db) {
+        Map<Long, String> expected = new HashMap<>();
+        scripts.forEach(script -> script.forEach(step -> {
+            if (step[1] == null) {
+                expected.remove((Long) step[0]);
+            } else {
+                expected.put((Long) step[0], ((ReactionType) step[1]).getCode());
+            }
+        }));
+        Map<String, Long> expectedCounts = expected.values().stream()
+                .collect(Collectors.groupingBy(type -> type, Collectors.counting()));
+        assertEquals(expected, db.reactions);
+        assertEquals(expectedCounts, db.nonZeroCounters());
+    }
+
+    // Each client reacts as its own users only, so the last reaction of every user is known
+    private static List<List<Object[]>> scripts(int clients, int reactionsPerClient) {
+        List<List<Object[]>> scripts = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            Random random = new Random(client);
+            List<Object[]> script = new ArrayList<>();
+            for (int i = 0; i < reactionsPerClient; i++) {
+                long userId = 1_000L + client * USERS_PER_CLIENT + random.nextInt(USERS_PER_CLIENT);
+                script.add(new Object[] { userId, TYPES[random.nextInt(TYPES.length)] });
+            }
+            scripts.add(script);
+        }
+        return scripts;
+    }
+
+    private static Result runDirect(List<List<Object[]>> scripts) throws InterruptedException {
+        FakeDatabase db = new FakeDatabase();
+        return run(db, scripts, (userId, type) -> writeDirectly(db, userId, type == null ? null : type.getCode()),
+                null);
+    }
+
+    private static Result runWriteBehind(List<List<Object[]>> scripts) throws InterruptedException {
+        FakeDatabase db = new FakeDatabase();
+        ReactionAggregator aggregator = newAggregator(db);
+        return run(db, scripts, (userId, type) -> aggregator.submit(DREAM_ID, userId, type), aggregator::flush);
+    }
+
+    private static Result run(FakeDatabase db, List<List<Object[]>> scripts, ReactionWriter writer, Runnable flush)
+            throws InterruptedException {
+        ScheduledExecutorService flusher = null;
+        if (flush != null) {
+            flusher = Executors.newSingleThreadScheduledExecutor();
+            flusher.scheduleWithFixedDelay(flush, FLUSH_MS, FLUSH_MS, TimeUnit.MILLISECONDS);
+        }
+
+        long start = System.nanoTime();
+        List<Thread> clients = new ArrayList<>();
+        for (List<Object[]> script : scripts) {
+            Thread client = new Thread(
+                    () -> script.forEach(step -> writer.write((Long) step[0], (ReactionType) step[1])));
+            clients.add(client);
+            client.start();
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+        long acceptedNanos = System.nanoTime() - start;
+
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+            flush.run();
+        }
+
+        Result result = new Result();
+        result.db = db;
+        result.acceptedNanos = acceptedNanos;
+        result.durableNanos = System.nanoTime() - start;
+        result.transactions = db.transactions.sum();
+        result.lockWaits = db.lockWaits.sum();
+        return result;
+    }
+
+    private static void report(String name, Result result, List<List<Object[]>> scripts) {
+        long reactions = scripts.stream().mapToLong(List::size).sum();
+        System.out.printf("%-12s %6d reactions/s accepted, all written after %5dms | transactions=%5d "
+                + "statements=%6d lock waits=%5d (%dms waiting)%n", name,
+                reactions * 1_000_000_000L / result.acceptedNanos, result.durableNanos / 1_000_000,
+                result.transactions, result.db.statements.sum(), result.lockWaits,
+                result.db.lockWaitNanos.sum() / 1_000_000);
+    }
+
+    // What reactToDream and removeDreamReaction did per request: load the dream, lock the
+    // user's reaction, write it, move the counters by one and read the total for trending
+    private static void writeDirectly(FakeDatabase db, Long userId, String type) {
+        db.inTransaction(() -> {
+            db.statement();
+            db.lockRow("reaction:" + userId);
+            db.statement();
+            String previous = db.reactions.get(userId);
+            if (!Objects.equals(previous, type)) {
+                db.statement();
+                if (type == null) {
+                    db.reactions.remove(userId);
+                } else {
+                    db.reactions.put(userId, type);
+                }
+                // In a fixed order; MySQL would instead abort one of two crossing transactions
+                TreeSet<String> counters = new TreeSet<>();
+                if (previous != null) {
+                    counters.add(previous);
+                }
+                if (type != null) {
+                    counters.add(type);
+                }
+                counters.forEach(counter -> db.lockRow("count:" + counter));
+                if (previous != null) {
+                    db.statement();
+                    db.counters.merge(previous, -1L, Long::sum);
+                }
+                if (type != null) {
+                    db.statement();
+                    db.counters.merge(type, 1L, Long::sum);
+                }
+            }
+            db.statement();
+            return null;
+        });
+    }
+
+    private static ReactionAggregator newAggregator(FakeDatabase db) {
+        DreamRepository dreamRepository = mock(DreamRepository.class);
+        when(dreamRepository.existsByDreamIdAndDeletedAtIsNull(anyLong())).thenAnswer(inv -> {
+            db.statement();
+            return true;
+        });
+
+        ReactionRepository reactionRepository = mock(ReactionRepository.class);
+        when(reactionRepository.findType(anyLong(), anyLong())).thenAnswer(inv -> {
+            db.statement();
+            return Optional.ofNullable(db.reactions.get(inv.<Long>getArgument(1)));
+        });
+        when(reactionRepository.findForUpdate(anyLong(), anyCollection())).thenAnswer(inv -> {
+            List<Reaction> found = new ArrayList<>();
+            for (Long userId : inv.<Collection<Long>>getArgument(1)) {
+                db.lockRow("reaction:" + userId);
+                String type = db.reactions.get(userId);
+                if (type != null) {
+                    Reaction reaction = new Reaction();
+                    reaction.setDreamId(DREAM_ID);
+                    reaction.setUserId(userId);
+                    reaction.setType(type);
+                    found.add(reaction);
+                }
+            }
+            db.statement();
+            return found;
+        });
+
+        // One round trip per batch; upserts carry four arguments, deletes two
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(inv -> {
+            List<Object[]> rows = inv.getArgument(1);
+            for (Object[] row : rows) {
+                if (row.length == 4) {
+                    db.reactions.put((Long) row[1], (String) row[2]);
+                } else {
+                    db.reactions.remove((Long) row[1]);
+                }
+            }
+            db.statement();
+            return new int[rows.size()];
+        });
+
+        ReactionCountRepository reactionCountRepository = mock(ReactionCountRepository.class);
+        when(reactionCountRepository.add(anyLong(), anyString(), anyLong(), any())).thenAnswer(inv -> {
+            String type = inv.getArgument(1);
+            db.lockRow("count:" + type);
+            db.statement();
+            db.counters.merge(type, inv.<Long>getArgument(2), Long::sum);
+            return 1;
+        });
+        when(reactionCountRepository.sumByDreamIds(anyCollection())).thenAnswer(inv -> {
+            db.statement();
+            return List.of();
+        });
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(
+                inv -> db.inTransaction(() -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null)));
+
+        ReactionAggregator aggregator = new ReactionAggregator();
+        ReflectionTestUtils.setField(aggregator, "dreamRepository", dreamRepository);
+        ReflectionTestUtils.setField(aggregator, "reactionRepository", reactionRepository);
+        ReflectionTestUtils.setField(aggregator, "reactionCountRepository", reactionCountRepository);
+        ReflectionTestUtils.setField(aggregator, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(aggregator, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(aggregator, "dreamCache", mock(DreamCache.class));
+        ReflectionTestUtils.setField(aggregator, "trendingEngine", mock(TrendingEngine.class));
+        ReflectionTestUtils.setField(aggregator, "batchSize", 500);
+        return aggregator;
+    }
+
+    @FunctionalInterface
+    private interface ReactionWriter {
+        void write(Long userId, ReactionType type);
+    }
+
+    private static final class Result {
+        private FakeDatabase db;
+        private long acceptedNanos;
+        private long durableNanos;
+        private long transactions;
+        private long lockWaits;
+    }
+
+    // One dream's reactions and counters, with row locks held until the transaction ends
+    private static final class FakeDatabase {
+        private final ConcurrentMap<Long, String> reactions = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Long> counters = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, ReentrantLock> rowLocks = new ConcurrentHashMap<>();
+        private final ThreadLocal<List<ReentrantLock>> held = ThreadLocal.withInitial(ArrayList::new);
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder transactions = new LongAdder();
+        private final LongAdder lockWaits = new LongAdder();
+        private final LongAdder lockWaitNanos = new LongAdder();
+
+        <T> T inTransaction(Supplier<T> work) {
+            transactions.increment();
+            try {
+                return work.get();
+            } finally {
+                LockSupport.parkNanos(COMMIT_NANOS);
+                held.get().forEach(ReentrantLock::unlock);
+                held.get().clear();
+            }
+        }
+
+        void statement() {
+            statements.increment();
+            LockSupport.parkNanos(STATEMENT_NANOS);
+        }
+
+        void lockRow(String row) {
+            ReentrantLock lock = rowLocks.computeIfAbsent(row, key -> new ReentrantLock());
+            if (lock.isHeldByCurrentThread()) {
+                return;
+            }
+            if (!lock.tryLock()) {
+                lockWaits.increment();
+                long start = System.nanoTime();
+                lock.lock();
+                lockWaitNanos.add(System.nanoTime() - start);
+            }
+            held.get().add(lock);
+        }
+
+        Map<String, Long> nonZeroCounters() {
+            return counters.entrySet().stream()
+                    .filter(counter -> counter.getValue() != 0)
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        }
+    }
+}
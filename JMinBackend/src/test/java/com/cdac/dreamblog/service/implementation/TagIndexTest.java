@@ -0,0 +1,96 @@
+package com.cdac.dreamblog.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import com.cdac.dreamblog.dto.response.TagCountDto;
+
+// No transaction is active here, so add and remove apply right away
+class TagIndexTest {
+
+    private final TagIndex index = new TagIndex();
+
+    @BeforeEach
+    void addDreams() {
+        index.add(1L, List.of("dream", "flying"), false);
+        index.add(2L, List.of("dream", "water"), false);
+        index.add(3L, List.of("flying"), true);
+        index.add(4L, List.of("water", "night"), false);
+        index.add(5L, List.of("secret"), true);
+    }
+
+    @Test
+    void matchesAllAnyAndNone() {
+        assertEquals(bitmap(1, 2), index.match(List.of("dream"), List.of(), List.of()));
+        assertEquals(bitmap(2), index.match(List.of("dream", "water"), List.of(), List.of()));
+        assertEquals(bitmap(1, 2, 4), index.match(List.of(), List.of("flying", "water"), List.of()));
+        assertEquals(bitmap(1), index.match(List.of("dream"), List.of("flying", "water"), List.of("water")));
+        assertEquals(bitmap(2, 4), index.match(List.of(), List.of("water", "unknown"), List.of()));
+    }
+
+    @Test
+    void neverMatchesPrivateDreams() {
+        assertEquals(bitmap(1), index.match(List.of("flying"), List.of(), List.of()));
+        assertEquals(bitmap(), index.match(List.of("secret"), List.of(), List.of()));
+    }
+
+    @Test
+    void matchesNothingForUnknownTagsOrOnlyExclusions() {
+        assertEquals(bitmap(), index.match(List.of("dream", "unknown"), List.of(), List.of()));
+        assertEquals(bitmap(), index.match(List.of(), List.of("unknown"), List.of()));
+        assertEquals(bitmap(), index.match(List.of(), List.of(), List.of("dream")));
+    }
+
+    @Test
+    void returnsACopyTheCallerMayChange() {
+        index.match(List.of("dream"), List.of(), List.of()).add(99);
+        assertEquals(bitmap(1, 2), index.match(List.of("dream"), List.of(), List.of()));
+    }
+
+    @Test
+    void removedDreamsLeaveTheirTags() {
+        index.remove(2L, List.of("dream", "water"));
+        assertEquals(bitmap(1), index.match(List.of("dream"), List.of(), List.of()));
+        assertEquals(bitmap(4), index.match(List.of("water"), List.of(), List.of()));
+
+        index.remove(3L, List.of("flying"));
+        index.add(3L, List.of("flying"), false); // made public again
+        assertEquals(bitmap(1, 3), index.match(List.of("flying"), List.of(), List.of()));
+    }
+
+    @Test
+    void countsPublicDreamsPerTagAndSkipsPrivateOnlyTags() {
+        List<TagCountDto> top = index.topTags(10);
+        Map<String, Long> counts = top.stream().collect(Collectors.toMap(TagCountDto::getTag, TagCountDto::getCount));
+
+        assertEquals(Map.of("dream", 2L, "water", 2L, "flying", 1L, "night", 1L), counts);
+        assertEquals(2L, top.get(0).getCount());
+        assertEquals(1L, top.get(top.size() - 1).getCount());
+        assertEquals(2, index.topTags(2).size());
+    }
+
+    @Test
+    void pagesNewestFirstBelowTheCursor() {
+        RoaringBitmap dreams = bitmap(1, 5, 9, 20);
+
+        assertEquals(List.of(20L, 9L), TagIndex.newestFirst(dreams, null, 2));
+        assertEquals(List.of(5L, 1L), TagIndex.newestFirst(dreams, 9L, 10));
+        assertEquals(List.of(9L, 5L, 1L), TagIndex.newestFirst(dreams, 10L, 10));
+        assertEquals(List.of(20L, 9L, 5L, 1L), TagIndex.newestFirst(dreams, Long.MAX_VALUE, 10));
+        assertTrue(TagIndex.newestFirst(dreams, 1L, 10).isEmpty());
+        assertTrue(TagIndex.newestFirst(dreams, 0L, 10).isEmpty());
+        assertTrue(TagIndex.newestFirst(new RoaringBitmap(), null, 10).isEmpty());
+    }
+
+    private static RoaringBitmap bitmap(int... ids) {
+        return RoaringBitmap.bitmapOf(ids);
+    }
+}
@@ -0,0 +1,177 @@
+package com.cdac.dreamblog.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cdac.dreamblog.model.Dream;
+import com.cdac.dreamblog.model.User;
+import com.cdac.dreamblog.repository.DreamRepository;
+import com.cdac.dreamblog.repository.FollowRepository;
+
+/**
+ * Compares push-only fan-out with the hybrid push/pull mode on a follow graph with one
+ * heavily followed account. Repositories are in-memory fakes, so the numbers measure the
+ * timeline store itself; in production each pulled author also costs one indexed query.
+ */
+@Tag("benchmark")
+class TimelineStoreBenchmarkTest {
+
+    private static final long CELEBRITY_ID = 1L;
+    private static final int FOLLOWER_COUNT = 10_000;
+    private static final int NORMAL_AUTHOR_COUNT = 200;
+    private static final int FOLLOWS_PER_USER = 20;
+    private static final int WRITES = 2_000;
+    private static final int READS = 5_000;
+    private static final int PAGE_SIZE = 20;
+
+    private final Map<Long, List<Long>> followersByAuthor = new HashMap<>();
+    private final Map<Long, List<Long>> followedByUser = new HashMap<>();
+    private final Map<Long, List<Long>> dreamIdsByAuthor = new HashMap<>(); // ascending
+
+    @Test
+    void compareWriteAndReadLatency() {
+        buildFollowGraph();
+
+        Result push = run("push-only", Long.MAX_VALUE);
+        Result hybrid = run("hybrid", 1_000);
+
+        // Both strategies must produce the same timelines
+        assertEquals(push.samplePages, hybrid.samplePages);
+    }
+
+    private void buildFollowGraph() {
+        Random random = new Random(42);
+        for (long follower = 1_000; follower < 1_000 + FOLLOWER_COUNT; follower++) {
+            List<Long> followed = new ArrayList<>();
+            followed.add(CELEBRITY_ID);
+            while (followed.size() < FOLLOWS_PER_USER) {
+                long author = 2 + random.nextInt(NORMAL_AUTHOR_COUNT);
+                if (!followed.contains(author)) {
+                    followed.add(author);
+                }
+            }
+            followedByUser.put(follower, followed);
+            for (Long author : followed) {
+                followersByAuthor.computeIfAbsent(author, k -> new ArrayList<>()).add(follower);
+            }
+        }
+    }
+
+    private Result run(String name, long pullThreshold) {
+        dreamIdsByAuthor.clear();
+        TimelineStore store = newStore(pullThreshold);
+
+        // Materialize every follower's timeline before measuring
+        for (long follower = 1_000; follower < 1_000 + FOLLOWER_COUNT; follower++) {
+            store.page(follower, null, PAGE_SIZE);
+        }
+
+        Random random = new Random(7);
+        long[] writeNanos = new long[WRITES];
+        for (int i = 0; i < WRITES; i++) {
+            long authorId = random.nextInt(20) == 0 ? CELEBRITY_ID : 2 + random.nextInt(NORMAL_AUTHOR_COUNT);
+            Dream dream = newDream(i + 1L, authorId);
+            dreamIdsByAuthor.computeIfAbsent(authorId, k -> new ArrayList<>()).add(dream.getDreamId());
+            long start = System.nanoTime();
+            store.fanOut(dream);
+            writeNanos[i] = System.nanoTime() - start;
+        }
+
+        long[] readNanos = new long[READS];
+        for (int i = 0; i < READS; i++) {
+            long follower = 1_000 + random.nextInt(FOLLOWER_COUNT);
+            long start = System.nanoTime();
+            store.page(follower, null, PAGE_SIZE);
+            readNanos[i] = System.nanoTime() - start;
+        }
+
+        Result result = new Result();
+        for (long follower = 1_000; follower < 1_000 + FOLLOWER_COUNT; follower += 997) {
+            result.samplePages.add(store.page(follower, null, PAGE_SIZE));
+        }
+        System.out.printf("%-9s write p50=%6dus p99=%6dus | read p50=%4dus p99=%4dus%n", name,
+                percentile(writeNanos, 50) / 1_000, percentile(writeNanos, 99) / 1_000,
+                percentile(readNanos, 50) / 1_000, percentile(readNanos, 99) / 1_000);
+        return result;
+    }
+
+    private TimelineStore newStore(long pullThreshold) {
+        FollowRepository followRepository = mock(FollowRepository.class);
+        when(followRepository.findFollowerIdsByFollowedId(anyLong()))
+                .thenAnswer(inv -> followersByAuthor.getOrDefault(inv.<Long>getArgument(0), List.of()));
+        when(followRepository.findFollowedIdsByFollowerId(anyLong()))
+                .thenAnswer(inv -> followedByUser.getOrDefault(inv.<Long>getArgument(0), List.of()));
+        when(followRepository.countFollowersByUserId(anyLong()))
+                .thenAnswer(inv -> (long) followersByAuthor.getOrDefault(inv.<Long>getArgument(0), List.of()).size());
+        when(followRepository.findUserIdsWithMoreFollowersThan(anyCollection(), anyLong()))
+                .thenAnswer(inv -> inv.<Collection<Long>>getArgument(0).stream()
+                        .filter(id -> followersByAuthor.getOrDefault(id, List.of()).size() > inv.<Long>getArgument(1))
+                        .collect(Collectors.toList()));
+
+        DreamRepository dreamRepository = mock(DreamRepository.class);
+        when(dreamRepository.findTimelineDreamIds(anyCollection(), anyLong(), any(Pageable.class)))
+                .thenAnswer(inv -> newestFirst(inv.<Collection<Long>>getArgument(0), Long.MAX_VALUE,
+                        inv.<Pageable>getArgument(2).getPageSize()));
+        when(dreamRepository.findPublicDreamIdsByAuthorBefore(anyLong(), anyLong(), any(Pageable.class)))
+                .thenAnswer(inv -> newestFirst(List.of(inv.<Long>getArgument(0)), inv.<Long>getArgument(1),
+                        inv.<Pageable>getArgument(2).getPageSize()));
+
+        TimelineStore store = new TimelineStore();
+        ReflectionTestUtils.setField(store, "followRepository", followRepository);
+        ReflectionTestUtils.setField(store, "dreamRepository", dreamRepository);
+        ReflectionTestUtils.setField(store, "timelineSize", 100);
+        ReflectionTestUtils.setField(store, "pullThreshold", pullThreshold);
+        ReflectionTestUtils.setField(store, "timelineTtlMinutes", 60L);
+        ReflectionTestUtils.setField(store, "maxTimelines", (long) FOLLOWER_COUNT + NORMAL_AUTHOR_COUNT + 1);
+        ReflectionTestUtils.setField(store, "timelineIdleMinutes", 60L);
+        ReflectionTestUtils.invokeMethod(store, "init");
+        return store;
+    }
+
+    private List<Long> newestFirst(Collection<Long> authorIds, long beforeDreamId, int limit) {
+        return authorIds.stream()
+                .flatMap(id -> dreamIdsByAuthor.getOrDefault(id, List.of()).stream())
+                .filter(id -> id < beforeDreamId)
+                .sorted((a, b) -> Long.compare(b, a))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private static Dream newDream(long dreamId, long authorId) {
+        User author = new User();
+        author.setUserId(authorId);
+        Dream dream = new Dream();
+        dream.setDreamId(dreamId);
+        dream.setUser(author);
+        dream.setVisibility("public");
+        return dream;
+    }
+
+    private static long percentile(long[] samples, int percentile) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    private static final class Result {
+        private final List<List<Long>> samplePages = new ArrayList<>();
+    }
+}
@@ -0,0 +1,143 @@
+package com.cdac.dreamblog.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cdac.dreamblog.model.Dream;
+import com.cdac.dreamblog.model.User;
+import com.cdac.dreamblog.repository.DreamRepository;
+import com.cdac.dreamblog.repository.FollowRepository;
+
+class TimelineStoreTest {
+
+    private static final long READER_ID = 100L;
+    private static final long CELEBRITY_ID = 1L;
+    private static final List<Long> FOLLOWED = List.of(CELEBRITY_ID, 2L, 3L);
+    private static final int TIMELINE_SIZE = 5;
+
+    private final Map<Long, List<Long>> dreamIdsByAuthor = new HashMap<>();
+
+    @Test
+    void pagesPastTheInMemoryTimeline() {
+        TimelineStore store = newStore();
+        long nextDreamId = 1;
+        for (; nextDreamId <= 30; nextDreamId++) {
+            addDream(nextDreamId);
+        }
+        store.page(READER_ID, null, 1); // materializes the newest TIMELINE_SIZE entries
+
+        // Dreams written after the build are pushed and push older entries out of the ring
+        for (; nextDreamId <= 40; nextDreamId++) {
+            store.fanOut(addDream(nextDreamId));
+        }
+
+        assertEquals(expectedTimeline(), readAllPages(store, 3));
+        assertEquals(expectedTimeline(), readAllPages(store, 7));
+    }
+
+    @Test
+    void timelineThatNeverFilledIsReadFromMemory() {
+        TimelineStore store = newStore();
+        for (long dreamId = 1; dreamId <= 3; dreamId++) {
+            addDream(dreamId);
+        }
+        // Authors 2 and 3 are read from memory, the celebrity's dream through the pull path
+        assertEquals(List.of(3L, 2L, 1L), readAllPages(store, 2));
+    }
+
+    private List<Long> readAllPages(TimelineStore store, int pageSize) {
+        List<Long> all = new ArrayList<>();
+        Long before = null;
+        while (true) {
+            List<Long> page = store.page(READER_ID, before, pageSize);
+            all.addAll(page);
+            if (page.size() < pageSize) {
+                return all;
+            }
+            before = page.get(page.size() - 1);
+        }
+    }
+
+    // Every dream of the followed authors and the reader, newest first
+    private List<Long> expectedTimeline() {
+        List<Long> authors = new ArrayList<>(FOLLOWED);
+        authors.add(READER_ID);
+        return newestFirst(authors, Long.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    // Round-robin over the reader, the celebrity and the two normal authors
+    private Dream addDream(long dreamId) {
+        long[] authors = { READER_ID, CELEBRITY_ID, 2L, 3L };
+        long authorId = authors[(int) (dreamId % authors.length)];
+        dreamIdsByAuthor.computeIfAbsent(authorId, k -> new ArrayList<>()).add(dreamId);
+
+        User author = new User();
+        author.setUserId(authorId);
+        Dream dream = new Dream();
+        dream.setDreamId(dreamId);
+        dream.setUser(author);
+        dream.setVisibility("public");
+        return dream;
+    }
+
+    private TimelineStore newStore() {
+        FollowRepository followRepository = mock(FollowRepository.class);
+        when(followRepository.findFollowedIdsByFollowerId(anyLong()))
+                .thenAnswer(inv -> inv.<Long>getArgument(0) == READER_ID ? FOLLOWED : List.of());
+        when(followRepository.findFollowerIdsByFollowedId(anyLong()))
+                .thenAnswer(inv -> FOLLOWED.contains(inv.<Long>getArgument(0)) ? List.of(READER_ID) : List.of());
+        // Only the celebrity is above the pull threshold
+        when(followRepository.countFollowersByUserId(anyLong()))
+                .thenAnswer(inv -> inv.<Long>getArgument(0) == CELEBRITY_ID ? 1_000L : 1L);
+        when(followRepository.findUserIdsWithMoreFollowersThan(anyCollection(), anyLong()))
+                .thenAnswer(inv -> inv.<Collection<Long>>getArgument(0).contains(CELEBRITY_ID)
+                        ? List.of(CELEBRITY_ID)
+                        : List.of());
+
+        DreamRepository dreamRepository = mock(DreamRepository.class);
+        when(dreamRepository.findTimelineDreamIds(anyCollection(), anyLong(), any(Pageable.class)))
+                .thenAnswer(inv -> newestFirst(inv.<Collection<Long>>getArgument(0), Long.MAX_VALUE,
+                        inv.<Pageable>getArgument(2).getPageSize()));
+        when(dreamRepository.findTimelineDreamIdsBefore(anyCollection(), anyLong(), anyLong(), any(Pageable.class)))
+                .thenAnswer(inv -> newestFirst(inv.<Collection<Long>>getArgument(0), inv.<Long>getArgument(2),
+                        inv.<Pageable>getArgument(3).getPageSize()));
+        when(dreamRepository.findPublicDreamIdsByAuthorBefore(anyLong(), anyLong(), any(Pageable.class)))
+                .thenAnswer(inv -> newestFirst(List.of(inv.<Long>getArgument(0)), inv.<Long>getArgument(1),
+                        inv.<Pageable>getArgument(2).getPageSize()));
+
+        TimelineStore store = new TimelineStore();
+        ReflectionTestUtils.setField(store, "followRepository", followRepository);
+        ReflectionTestUtils.setField(store, "dreamRepository", dreamRepository);
+        ReflectionTestUtils.setField(store, "timelineSize", TIMELINE_SIZE);
+        ReflectionTestUtils.setField(store, "pullThreshold", 100L);
+        ReflectionTestUtils.setField(store, "timelineTtlMinutes", 60L);
+        ReflectionTestUtils.setField(store, "maxTimelines", 1_000L);
+        ReflectionTestUtils.setField(store, "timelineIdleMinutes", 60L);
+        ReflectionTestUtils.invokeMethod(store, "init");
+        return store;
+    }
+
+    private List<Long> newestFirst(Collection<Long> authorIds, long beforeDreamId, int limit) {
+        return authorIds.stream()
+                .flatMap(id -> dreamIdsByAuthor.getOrDefault(id, List.of()).stream())
+                .filter(id -> id < beforeDreamId)
+                .sorted((a, b) -> Long.compare(b, a))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,49 @@
+package com.cdac.dreamblog.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.cdac.dreamblog.exception.BadRequestException;
+
+class DreamCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000);
+        DreamCursor decoded = DreamCursor.decode(new DreamCursor(createdAt, 42L).encode());
+
+        assertEquals(createdAt, decoded.getCreatedAt());
+        assertEquals(42L, decoded.getDreamId());
+    }
+
+    @Test
+    void keepsTimestampsWithoutFractionalSeconds() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+        assertEquals(createdAt, DreamCursor.decode(new DreamCursor(createdAt, 1L).encode()).getCreatedAt());
+    }
+
+    @Test
+    void encodesUrlSafeWithoutPadding() {
+        String cursor = new DreamCursor(LocalDateTime.of(2025, 6, 30, 23, 59, 59), Long.MAX_VALUE).encode();
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(BadRequestException.class, () -> DreamCursor.decode("not base64!"));
+        assertThrows(BadRequestException.class, () -> DreamCursor.decode(encode("2025-01-01T00:00")));
+        assertThrows(BadRequestException.class, () -> DreamCursor.decode(encode("yesterday|1")));
+        assertThrows(BadRequestException.class, () -> DreamCursor.decode(encode("2025-01-01T00:00|one")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
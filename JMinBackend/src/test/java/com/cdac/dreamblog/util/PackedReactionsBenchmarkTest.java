@@ -0,0 +1,130 @@
+package com.cdac.dreamblog.util;
+
+import static com.cdac.dreamblog.util.PackedReactionsTest.assertSameReactions;
+import static com.cdac.dreamblog.util.PackedReactionsTest.pack;
+import static com.cdac.dreamblog.util.PackedReactionsTest.reactions;
+import static com.cdac.dreamblog.util.PackedReactionsTest.unpack;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.cdac.dreamblog.model.DreamReaction;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A small benchmark that compares the binary form of PackedReactions with the JSON the old
+ * reactions_data column held (a list of DreamReaction, written the way Hibernate's JSON type
+ * writes it): bytes per dream, and encode and decode time. Runs with -Dgroups=benchmark;
+ * PackedReactionsTest covers the round trip in the default suite.
+ */
+class PackedReactionsBenchmarkTest {
+
+    private static final TypeReference<List<DreamReaction>> REACTION_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    @Tag("benchmark")
+    void reportBytesAndCodecCost() throws Exception {
+        Random random = new Random(42);
+        List<List<DreamReaction>> dreams = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            dreams.add(reactions(random, 10 + random.nextInt(2_000)));
+        }
+
+        long jsonBytes = 0;
+        long packedBytes = 0;
+        long heapBytes = 0;
+        List<byte[]> jsonColumns = new ArrayList<>();
+        List<byte[]> packedColumns = new ArrayList<>();
+        for (List<DreamReaction> reactions : dreams) {
+            byte[] json = objectMapper.writeValueAsBytes(reactions);
+            PackedReactions packed = pack(reactions);
+            byte[] binary = packed.toBytes();
+            jsonColumns.add(json);
+            packedColumns.add(binary);
+            jsonBytes += json.length;
+            packedBytes += binary.length;
+            heapBytes += packed.sizeInBytes();
+            assertSameReactions(reactions, objectMapper.readValue(json, REACTION_LIST));
+            assertSameReactions(reactions, unpack(PackedReactions.fromBytes(binary)));
+        }
+
+        // Warm up, then time encoding and decoding every dream in both forms
+        long checksum = 0;
+        for (int round = 0; round < 5; round++) {
+            checksum += encodeJson(dreams) + decodeJson(jsonColumns);
+            checksum += encodePacked(dreams) + decodePacked(packedColumns);
+        }
+        int rounds = 10;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            checksum += encodeJson(dreams);
+        }
+        long jsonEncodeNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            checksum += decodeJson(jsonColumns);
+        }
+        long jsonDecodeNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            checksum += encodePacked(dreams);
+        }
+        long packedEncodeNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            checksum += decodePacked(packedColumns);
+        }
+        long packedDecodeNanos = System.nanoTime() - start;
+
+        int codecs = rounds * dreams.size();
+        System.out.printf("column %d bytes packed vs %d JSON (%.1f%% saved), %d bytes packed on the heap%n",
+                packedBytes, jsonBytes, 100.0 * (jsonBytes - packedBytes) / jsonBytes, heapBytes);
+        System.out.printf("encode %.1fus/dream packed vs %.1fus JSON; decode %.1fus packed vs %.1fus JSON (checksum %d)%n",
+                packedEncodeNanos / 1_000.0 / codecs, jsonEncodeNanos / 1_000.0 / codecs,
+                packedDecodeNanos / 1_000.0 / codecs, jsonDecodeNanos / 1_000.0 / codecs, checksum);
+        assertTrue(packedBytes * 3 < jsonBytes);
+    }
+
+    private long encodeJson(List<List<DreamReaction>> dreams) throws Exception {
+        long total = 0;
+        for (List<DreamReaction> reactions : dreams) {
+            total += objectMapper.writeValueAsBytes(reactions).length;
+        }
+        return total;
+    }
+
+    private long decodeJson(List<byte[]> columns) throws Exception {
+        long total = 0;
+        for (byte[] column : columns) {
+            total += objectMapper.readValue(column, REACTION_LIST).size();
+        }
+        return total;
+    }
+
+    // Encoding includes building the packed form from the reactions, as JSON does
+    private static long encodePacked(List<List<DreamReaction>> dreams) {
+        long total = 0;
+        for (List<DreamReaction> reactions : dreams) {
+            total += pack(reactions).toBytes().length;
+        }
+        return total;
+    }
+
+    // Decoding goes back to DreamReaction objects, the form callers read
+    private static long decodePacked(List<byte[]> columns) {
+        long total = 0;
+        for (byte[] column : columns) {
+            total += unpack(PackedReactions.fromBytes(column)).size();
+        }
+        return total;
+    }
+}
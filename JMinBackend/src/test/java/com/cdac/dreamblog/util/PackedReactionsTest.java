@@ -0,0 +1,102 @@
+package com.cdac.dreamblog.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.cdac.dreamblog.enums.ReactionType;
+import com.cdac.dreamblog.model.DreamReaction;
+
+class PackedReactionsTest {
+
+    @Test
+    void roundTripsReactions() {
+        List<DreamReaction> reactions = reactions(new Random(1), 1_000);
+        PackedReactions packed = pack(reactions);
+
+        assertEquals(reactions.size(), packed.size());
+        assertSameReactions(reactions, unpack(packed));
+        assertSameReactions(reactions, unpack(PackedReactions.fromBytes(packed.toBytes())));
+    }
+
+    @Test
+    void keepsTheLatestReactionPerUser() {
+        PackedReactions packed = new PackedReactions(4);
+
+        // A second reaction replaces the first, and a removal is held like any other type
+        packed.put(7L, ReactionType.LIKE.getId(), 100L);
+        packed.put(7L, PackedReactions.REMOVED, 200L);
+        assertEquals(1, packed.size());
+        assertEquals(PackedReactions.REMOVED, packed.type(7L));
+        assertEquals(200L, packed.reactedAt(7L));
+        assertEquals(PackedReactions.ABSENT, packed.type(Long.MAX_VALUE));
+        assertEquals(-1L, packed.reactedAt(Long.MAX_VALUE));
+    }
+
+    @Test
+    void keepsEpochSecondsPast2038() {
+        PackedReactions packed = new PackedReactions(1);
+        long late = LocalDateTime.of(2100, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        packed.put(8L, ReactionType.BEST.getId(), late);
+
+        assertEquals(late, PackedReactions.fromBytes(packed.toBytes()).reactedAt(8L));
+    }
+
+    @Test
+    void rejectsBadUserIdsAndTruncatedBytes() {
+        PackedReactions packed = new PackedReactions(1);
+
+        assertThrows(IllegalArgumentException.class, () -> packed.put(0L, ReactionType.LIKE.getId(), 0L));
+        assertThrows(IllegalArgumentException.class, () -> PackedReactions.fromBytes(new byte[5]));
+    }
+
+    static PackedReactions pack(List<DreamReaction> reactions) {
+        PackedReactions packed = new PackedReactions(reactions.size());
+        for (DreamReaction reaction : reactions) {
+            packed.put(reaction.getUserId(), ReactionType.fromCode(reaction.getType()).getId(),
+                    reaction.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+        }
+        return packed;
+    }
+
+    static List<DreamReaction> unpack(PackedReactions packed) {
+        List<DreamReaction> reactions = new ArrayList<>(packed.size());
+        packed.forEach((userId, type, epochSecond) -> reactions.add(new DreamReaction(userId,
+                ReactionType.fromId(type).getCode(), LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC))));
+        return reactions;
+    }
+
+    // DreamReaction.equals ignores the timestamp, so compare it separately
+    static void assertSameReactions(List<DreamReaction> expected, List<DreamReaction> actual) {
+        List<DreamReaction> sortedExpected = new ArrayList<>(expected);
+        List<DreamReaction> sortedActual = new ArrayList<>(actual);
+        sortedExpected.sort(Comparator.comparing(DreamReaction::getUserId));
+        sortedActual.sort(Comparator.comparing(DreamReaction::getUserId));
+        assertEquals(sortedExpected, sortedActual);
+        for (int i = 0; i < sortedExpected.size(); i++) {
+            assertEquals(sortedExpected.get(i).getTimestamp(), sortedActual.get(i).getTimestamp());
+        }
+    }
+
+    // One reaction per user, with second-precision timestamps as the packed form keeps
+    static List<DreamReaction> reactions(Random random, int count) {
+        ReactionType[] types = ReactionType.values();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<DreamReaction> reactions = new ArrayList<>(count);
+        long userId = 1 + random.nextInt(1_000);
+        for (int i = 0; i < count; i++) {
+            userId += 1 + random.nextInt(50);
+            reactions.add(new DreamReaction(userId, types[random.nextInt(types.length)].getCode(),
+                    base.plusSeconds(random.nextInt(365 * 24 * 3600))));
+        }
+        return reactions;
+    }
+}
@@ -0,0 +1,104 @@
+package com.cdac.dreamblog.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PrefixTrieTest {
+
+    @Test
+    void suggestsBestFirstThenAlphabetical() {
+        PrefixTrie trie = new PrefixTrie(5);
+        trie.put("flying", 3);
+        trie.put("falling", 7);
+        trie.put("fire", 3);
+        trie.put("water", 10);
+
+        assertEquals(List.of("falling", "fire", "flying"), trie.suggest("f", 10));
+        assertEquals(List.of("fire"), trie.suggest("fi", 10));
+        assertEquals(List.of("water", "falling"), trie.suggest("", 2));
+        assertTrue(trie.suggest("x", 10).isEmpty());
+        assertEquals(4, trie.size());
+    }
+
+    @Test
+    void matchesCaseInsensitivelyAndKeepsTheOriginalSpelling() {
+        PrefixTrie trie = new PrefixTrie(5);
+        trie.put("Lucid", 2);
+        trie.put("  ", 9);
+        trie.put(null, 9);
+
+        assertEquals(List.of("Lucid"), trie.suggest("LU", 10));
+        assertEquals(List.of("Lucid"), trie.suggest(" luc ", 10));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    void addRaisesScoresAndAddsNewTerms() {
+        PrefixTrie trie = new PrefixTrie(2);
+        trie.add("nightmare", 1);
+        trie.add("night", 2);
+        trie.add("nightfall", 1);
+
+        assertEquals(List.of("night", "nightfall"), trie.suggest("night", 10));
+
+        trie.add("Nightmare", 5);
+        assertEquals(List.of("nightmare", "night"), trie.suggest("n", 10));
+        assertEquals(List.of("nightmare"), trie.suggest("nightm", 10));
+        assertEquals(3, trie.size());
+    }
+
+    @Test
+    void removingATermInAnAncestorsTopListRefillsIt() {
+        PrefixTrie trie = new PrefixTrie(2);
+        trie.put("apple", 10);
+        trie.put("apricot", 9);
+        trie.put("april", 8);
+        trie.put("banana", 1);
+
+        // april only ranks third under "a" and "ap", so those lists hold apple and apricot
+        assertEquals(List.of("apple", "apricot"), trie.suggest("ap", 10));
+
+        trie.remove("APPLE");
+        assertEquals(List.of("apricot", "april"), trie.suggest("ap", 10));
+        assertEquals(List.of("apricot", "april"), trie.suggest("a", 10));
+        assertEquals(List.of("apricot", "april"), trie.suggest("", 10));
+        assertTrue(trie.suggest("app", 10).isEmpty());
+        assertEquals(3, trie.size());
+
+        trie.remove("apricot");
+        trie.remove("april");
+        assertEquals(List.of("banana"), trie.suggest("", 10));
+        assertTrue(trie.suggest("a", 10).isEmpty());
+    }
+
+    @Test
+    void removingATermKeepsLongerTermsBelowIt() {
+        PrefixTrie trie = new PrefixTrie(3);
+        trie.put("fly", 5);
+        trie.put("flying", 2);
+
+        trie.remove("fly");
+        assertEquals(List.of("flying"), trie.suggest("fly", 10));
+
+        trie.remove("unknown");
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    void loweringAScoreReordersTheListsHoldingIt() {
+        PrefixTrie trie = new PrefixTrie(3);
+        trie.put("sea", 9);
+        trie.put("sand", 5);
+        trie.put("sky", 1);
+
+        trie.put("sea", 0);
+        assertEquals(List.of("sand", "sky", "sea"), trie.suggest("s", 10));
+
+        trie.add("sky", 10);
+        assertEquals(List.of("sky", "sand", "sea"), trie.suggest("s", 10));
+    }
+}
@@ -0,0 +1,77 @@
+package com.cdac.dreamblog.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Drives the synchronizations by hand, the way a transaction manager calls them
+class TransactionHooksTest {
+
+    private final List<String> ran = new ArrayList<>();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void runsRightAwayWithoutATransaction() {
+        TransactionHooks.afterCommit(() -> ran.add("now"));
+        assertEquals(List.of("now"), ran);
+    }
+
+    @Test
+    void runsOnlyOnceCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionHooks.afterCommit(() -> ran.add("first"));
+        TransactionHooks.afterCommit(() -> ran.add("second"));
+        assertEquals(List.of(), ran);
+
+        commit();
+        assertEquals(List.of("first", "second"), ran);
+    }
+
+    @Test
+    void runsNothingOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionHooks.afterCommit(() -> ran.add("never"));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertEquals(List.of(), ran);
+    }
+
+    @Test
+    void runsHooksRegisteredAfterCommitRightAway() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionHooks.afterCommit(() -> {
+            ran.add("outer");
+            TransactionHooks.afterCommit(() -> ran.add("inner"));
+        });
+
+        commit();
+        assertEquals(List.of("outer", "inner"), ran);
+
+        // Hooks of the next transaction on this thread wait for its commit again
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionHooks.afterCommit(() -> ran.add("next"));
+        assertEquals(List.of("outer", "inner"), ran);
+    }
+
+    // Spring calls a snapshot of the synchronizations, so later registrations are never called
+    private static void commit() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+    }
+}
@@ -21,6 +21,7 @@ interface ReactionData {
   icon: React.ReactNode
   color: string
   hoverColor: string
+  count?: number // Total for the dream; users may list only some of them, e.g. just the viewer
   users: User[]
 }
 
@@ -78,11 +79,13 @@ export function EmojiReactionButton({
   // Get current user's reaction
   const currentUserReaction = reactions.find((r) => r.users.some((user) => user.id === currentUserId))
 
+  const countOf = (reaction: ReactionData) => reaction.count ?? reaction.users.length
+
   // Get total reaction count
-  const totalReactions = reactions.reduce((sum, reaction) => sum + reaction.users.length, 0)
+  const totalReactions = reactions.reduce((sum, reaction) => sum + countOf(reaction), 0)
 
   // Get reactions with counts > 0
-  const activeReactions = reactions.filter((r) => r.users.length > 0)
+  const activeReactions = reactions.filter((r) => countOf(r) > 0)
   console.log('activeReactions', activeReactions);
   
 
@@ -256,7 +259,7 @@ export function EmojiReactionButton({
                     return (
                       <div key={reaction.id} className="flex items-center">
                         <span className="text-sm">{reactionType?.emoji}</span>
-                        <span className="text-xs text-muted-foreground ml-0.5">{reaction.users.length}</span>
+                        <span className="text-xs text-muted-foreground ml-0.5">{formatCount(countOf(reaction))}</span>
                       </div>
                     )
                   })}
@@ -279,7 +282,7 @@ export function EmojiReactionButton({
                         <span className="text-lg">{reactionType?.emoji}</span>
                         <span className="font-medium text-sm">{reactionType?.label}</span>
                         <Badge variant="secondary" className="text-xs">
-                          {reaction.users.length}
+                          {formatCount(countOf(reaction))}
                         </Badge>
                       </div>
                       <div className="flex items-center gap-2 flex-wrap">
@@ -300,9 +303,9 @@ export function EmojiReactionButton({
                             </Tooltip>
                           </TooltipProvider>
                         ))}
-                        {reaction.users.length > 8 && (
+                        {countOf(reaction) > Math.min(reaction.users.length, 8) && (
                           <div className="flex items-center justify-center h-6 w-6 rounded-full bg-muted text-xs">
-                            +{reaction.users.length - 8}
+                            +{formatCount(countOf(reaction) - Math.min(reaction.users.length, 8))}
                           </div>
                         )}
                       </div>
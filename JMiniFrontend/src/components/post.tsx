@@ -101,11 +101,15 @@ interface PostProps {
     verified: boolean;
   } | null;
   deletePost;
+  // Only the viewer's own reaction, if any; totals come from reactionCounts
   reactions :[{
     userId: string;
     type: string;
     timestamp: string;
   }]
+  reactionCounts?: Record<string, number>;
+  // Total comments; comments holds only the first few
+  commentCount?: number;
 }
 const mockUsers = [
   { id: "current-user", name: "You", avatar: "/placeholder.svg?height=32&width=32" },
@@ -143,6 +147,8 @@ export default function Post({
   tagged_user_data = null,
   deletePost,
   reactions: reactionsData,
+  reactionCounts,
+  commentCount,
 }: PostProps) {
   const userID = currentUserID;
   const { user: currentUser } = useCurrentLoggedInUser();
@@ -150,6 +156,7 @@ export default function Post({
   // const user = currentUser.body
   const { toast } = useToast();
   const [commentsData,setCommentsData] = useState(comments)
+  const [commentTotal, setCommentTotal] = useState(commentCount ?? comments?.length ?? 0)
   const [isLiked, setIsLiked] = useState(false);
   const [isDrawerOpen, setIsDrawerOpen] = useState(false);
   const [likedUsers, setLikedUsers] = useState([]);
@@ -168,8 +175,14 @@ export default function Post({
   const [isBookmarked, setIsBookmarked] = useState(false);
   const [commentText, setCommentText] = useState("");
   const [dreamId, setDreamId] = useState(null);
-  const [reaction, setReaction] = useState<string | null>(null)
-   const [reactions, setReactions] = useState([
+  const [reaction, setReaction] = useState<string | null>(reactionsData?.[0]?.type ?? null)
+  // The viewer is the only user listed on a reaction, so the button can highlight their choice
+  const ownUsers = (type: string) =>
+    reactionsData?.some((e) => e.type == type)
+      ? [{ id: String(currentUserID), name: "You", avatar: "" }]
+      : [];
+  const reactionCount = (type: string) => reactionCounts?.[type] ?? 0;
+   const [reactions, setReactions] = useState(() => [
     {
       id: "like",
       emoji: "❤️",
@@ -177,7 +190,8 @@ export default function Post({
       icon: null,
       color: "text-red-500",
       hoverColor: "hover:text-red-600",
-      users: reactionsData?.filter((e)=> e.type == 'like'),
+      count: reactionCount('like'),
+      users: ownUsers('like'),
     },
     {
       id: "dislike",
@@ -186,7 +200,8 @@ export default function Post({
       icon: null,
       color: "text-blue-500",
       hoverColor: "hover:text-blue-600",
-      users: reactionsData?.filter((e)=> e.type == 'dislike'),
+      count: reactionCount('dislike'),
+      users: ownUsers('dislike'),
     },
     {
       id: "cry",
@@ -195,7 +210,8 @@ export default function Post({
       icon: null,
       color: "text-blue-400",
       hoverColor: "hover:text-blue-500",
-      users: reactionsData?.filter((e)=> e.type == 'cry'),
+      count: reactionCount('cry'),
+      users: ownUsers('cry'),
     },
     {
       id: "best",
@@ -204,7 +220,8 @@ export default function Post({
       icon: null,
       color: "text-orange-500",
       hoverColor: "hover:text-orange-600",
-      users: reactionsData?.filter((e)=> e.type == 'best'),
+      count: reactionCount('best'),
+      users: ownUsers('best'),
     },
   ])
 
@@ -217,25 +234,13 @@ export default function Post({
 
     setReactions((prevReactions) => {
       return prevReactions.map((reaction) => {
-        // Remove current user from all reactions first
-        const usersWithoutCurrent = reaction.users?.filter((user) => user.id !== currentUser?.userId)
-      
-        // If this is the selected reaction, add current user
-        if (reaction.id === reactionId) {
-          return {
-            ...reaction,
-            users: [...usersWithoutCurrent, {
-              id: currentUser.userId,
-              name: currentUser.firstName,
-              avatar: "",
-            }],
-          }
-        }
-
-        // Otherwise, just return without current user
+        // Move the viewer's one reaction: off the type they had, onto the one selected
+        const wasMine = reaction.users.some((user) => user.id === String(currentUserID))
+        const isMine = reaction.id === reactionId
         return {
           ...reaction,
-          users: usersWithoutCurrent,
+          count: Math.max(0, reaction.count - (wasMine ? 1 : 0)) + (isMine ? 1 : 0),
+          users: isMine ? [{ id: String(currentUserID), name: "You", avatar: "" }] : [],
         }
       })
     })
@@ -311,6 +316,10 @@ export default function Post({
      setCommentsData(comments)
   }, [comments]);
 
+  useEffect(() => {
+     setCommentTotal(commentCount ?? comments?.length ?? 0)
+  }, [commentCount, comments]);
+
   const handleShowComments = async () => {
     setIsCommentDrawerOpen(true);
     setIsLoadingComments(true);
@@ -348,6 +357,7 @@ export default function Post({
     setCommentUsers((prev) => [newComment.data, ...prev]);
     setComments((prev) => [newComment.data, ...prev]);
     setCommentsData((prev) => [newComment.data, ...prev]);
+    setCommentTotal((total) => total + 1);
     if (commentRef.current) {
       commentRef.current.value = "";
     }
@@ -564,16 +574,8 @@ export default function Post({
                   </TooltipContent>
                 </Tooltip>
               </TooltipProvider> */}
-              <EmojiReactionButton reactions={reactionsData.map((reaction) => ({
-                  id: reaction.type,
-                  emoji: reaction.type, // You might want to replace this with actual emojis based on reaction.type
-                  label: reaction.type, // You might want to replace this with actual labels based on reaction.type
-                  icon: null,
-                  color: "text-gray-500", // Default color
-                  hoverColor: "hover:text-gray-600", // Default hover color
-                  users: [], // Populate users based on your logic if needed
-                }))} 
-                currentUserId={currentUserID} 
+              <EmojiReactionButton reactions={reactions}
+                currentUserId={String(currentUserID)}
                 onReactionChange={handleReactionChange} />
               <TooltipProvider>
                 <Tooltip>
@@ -585,7 +587,7 @@ export default function Post({
                       onClick={handleShowComments}
                     >
                       <MessageCircle className="h-4 w-4 mr-1" />
-                      {commentsData?.length || 0}
+                      {formatCount(commentTotal)}
                     </Button>
                   </TooltipTrigger>
                   <TooltipContent>
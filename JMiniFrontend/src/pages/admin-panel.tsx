@@ -61,7 +61,9 @@ interface Comment {
 export default function AdminPanel() {
   const [searchTerm, setSearchTerm] = useState("")
   const [users, setUsers] = useState([]);
-  const [dreams,setDreams] =useState([]);
+  const [dreams,setDreams] =useState<Dream[]>([]);
+  const [dreamsCursor, setDreamsCursor] = useState<string | null>(null);
+  const [isLoadingDreams, setIsLoadingDreams] = useState(false);
   // Mock data
   // const users: User[] = [
   //   {
@@ -107,15 +109,23 @@ export default function AdminPanel() {
     fetchAllusers();
   },[])
 
+  // One page of every dream, private ones included; the next page loads on request
+  const fetchDreams = async (before?: string) => {
+    setIsLoadingDreams(true);
+    try {
+      const response = await API.get('/admin/dreams', {
+        params: { limit: 50, before }
+      });
+      const items: Dream[] = response.data?.items || [];
+      setDreams((loaded) => (before ? [...loaded, ...items] : items));
+      setDreamsCursor(response.data?.nextCursor || null);
+    } finally {
+      setIsLoadingDreams(false);
+    }
+  };
+
   useEffect(()=>{
-    const fetchAllDreams = async () =>{
-       const response  = await API.get('/dreams');
-      if(response.data){
-        setDreams(response.data);
-      }
-    };
-    
-    fetchAllDreams();
+    fetchDreams();
   },[])
   
 
@@ -242,7 +252,7 @@ export default function AdminPanel() {
               <MessageSquare className="h-4 w-4 text-purple-500" />
             </CardHeader>
             <CardContent>
-              <div className="text-2xl font-bold">{dreams.length}</div>
+              <div className="text-2xl font-bold">{dreams.length}{dreamsCursor ? "+" : ""}</div>
               <p className="text-xs text-muted-foreground">+8% from last month</p>
             </CardContent>
           </Card>
@@ -449,6 +459,17 @@ export default function AdminPanel() {
                     ))}
                   </TableBody>
                 </Table>
+                {dreamsCursor && (
+                  <div className="flex justify-center pt-4">
+                    <Button
+                      variant="outline"
+                      disabled={isLoadingDreams}
+                      onClick={() => fetchDreams(dreamsCursor)}
+                    >
+                      {isLoadingDreams ? "Loading..." : "Load more"}
+                    </Button>
+                  </div>
+                )}
               </CardContent>
             </Card>
           </TabsContent>
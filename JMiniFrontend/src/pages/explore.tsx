@@ -47,17 +47,13 @@ export default function Explore() {
   }, []);
 
   const fetchData = async(isUpdate = false) => {
-      let sortBy = 'dreamId'; 
-      let sortOrder = 'asc';
      const params = {
-        page: 1,
-        size: 20,
-        sort: `${sortBy},${sortOrder}`,
+        limit: 20,
       };
        const response  = await API.get('/dreams', {
         params
        });
-       setPosts(response.data || []);
+       setPosts(response.data?.items || []);
   }
 
   if (isLoadingUser) {